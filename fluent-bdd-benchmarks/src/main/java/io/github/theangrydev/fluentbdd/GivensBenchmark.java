@@ -0,0 +1,92 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.fluentbdd;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a scenario with a growing number of givens, going through {@link FluentBdd} rather than straight to the
+ * {@link Verification}. Divide the score by the number of givens to get the cost per given.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GivensBenchmark {
+
+    private static final Object TEST_RESULT = new Object();
+
+    @Param({"1", "10", "100", "1000"})
+    private int numberOfGivens;
+
+    private final Given lambdaGiven = () -> {};
+    private final When<Object> when = () -> TEST_RESULT;
+
+    private MutableGiven[] mutableGivens;
+
+    private static class MutableGiven implements Given {
+        private int state;
+
+        @Override
+        public void prime() {
+            state++;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        mutableGivens = new MutableGiven[numberOfGivens];
+        for (int i = 0; i < numberOfGivens; i++) {
+            mutableGivens[i] = new MutableGiven();
+        }
+    }
+
+    @Benchmark
+    public FluentBdd<Object> sameLambdaGiven() {
+        FluentBdd<Object> fluentBdd = new FluentBdd<>();
+        for (int i = 0; i < numberOfGivens; i++) {
+            fluentBdd.given(lambdaGiven);
+        }
+        fluentBdd.when(when);
+        return fluentBdd;
+    }
+
+    @Benchmark
+    public FluentBdd<Object> distinctMutableGivens() {
+        FluentBdd<Object> fluentBdd = new FluentBdd<>();
+        for (MutableGiven mutableGiven : mutableGivens) {
+            fluentBdd.given(mutableGiven);
+        }
+        fluentBdd.when(when);
+        return fluentBdd;
+    }
+}
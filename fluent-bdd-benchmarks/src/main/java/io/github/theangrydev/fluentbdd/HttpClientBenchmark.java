@@ -0,0 +1,108 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.fluentbdd;
+
+import acceptance.example.test.SharedHttpClient;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Compares making a request to a local server with a new {@link OkHttpClient} for every request, which is what the
+ * example acceptance tests used to do, against making it with the {@link SharedHttpClient} that they use now, with its
+ * configured connection pool and dispatcher.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HttpClientBenchmark {
+
+    private static final byte[] RESPONSE_BODY = "There is light rain in London".getBytes(UTF_8);
+
+    private final Server server = new Server(0);
+
+    private Request request;
+
+    @Setup
+    public void startServer() throws Exception {
+        server.setHandler(new AbstractHandler() {
+            @Override
+            public void handle(String target, org.eclipse.jetty.server.Request baseRequest, HttpServletRequest servletRequest, HttpServletResponse servletResponse) throws IOException {
+                servletResponse.setContentLength(RESPONSE_BODY.length);
+                servletResponse.getOutputStream().write(RESPONSE_BODY);
+                baseRequest.setHandled(true);
+            }
+        });
+        server.start();
+        request = new Request.Builder().url(server.getURI().resolve("/weather").toString()).build();
+    }
+
+    @TearDown
+    public void stopServer() throws Exception {
+        server.stop();
+    }
+
+    /**
+     * The client is shut down after each request, otherwise its idle connection and dispatcher thread are kept for
+     * minutes and build up over the run until they skew the measurement or exhaust the file descriptors.
+     */
+    @Benchmark
+    public String newClientPerRequest() throws IOException {
+        OkHttpClient okHttpClient = new OkHttpClient();
+        try {
+            return execute(okHttpClient);
+        } finally {
+            okHttpClient.dispatcher().executorService().shutdown();
+            okHttpClient.connectionPool().evictAll();
+        }
+    }
+
+    @Benchmark
+    public String sharedClient() throws IOException {
+        return execute(SharedHttpClient.sharedHttpClient());
+    }
+
+    private String execute(OkHttpClient okHttpClient) throws IOException {
+        try (Response response = okHttpClient.newCall(request).execute()) {
+            return response.body().string();
+        }
+    }
+}
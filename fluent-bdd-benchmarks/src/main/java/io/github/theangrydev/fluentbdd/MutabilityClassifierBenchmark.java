@@ -0,0 +1,89 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.fluentbdd;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.reflect.Modifier.isFinal;
+import static java.util.Arrays.stream;
+
+/**
+ * Compares scanning the declared fields every time a step is used with the classification that is cached per class.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MutabilityClassifierBenchmark {
+
+    private final Class<?> mutableClass = MutableStep.class;
+    private final Class<?> immutableClass = ImmutableStep.class;
+
+    @SuppressWarnings("PMD.UnusedPrivateField") // The fields are what is being classified
+    private static class MutableStep {
+        private final String first = "first";
+        private final String second = "second";
+        private String third;
+    }
+
+    @SuppressWarnings("PMD.UnusedPrivateField") // The fields are what is being classified
+    private static class ImmutableStep {
+        private final String first = "first";
+        private final String second = "second";
+        private final String third = "third";
+    }
+
+    @Benchmark
+    public boolean reflectiveScanOfMutableClass() {
+        return declaresNonFinalField(mutableClass);
+    }
+
+    @Benchmark
+    public boolean reflectiveScanOfImmutableClass() {
+        return declaresNonFinalField(immutableClass);
+    }
+
+    @Benchmark
+    public boolean cachedClassificationOfMutableClass() {
+        return MutabilityClassifier.appearsToBeMutable(mutableClass);
+    }
+
+    @Benchmark
+    public boolean cachedClassificationOfImmutableClass() {
+        return MutabilityClassifier.appearsToBeMutable(immutableClass);
+    }
+
+    private static boolean declaresNonFinalField(Class<?> aClass) {
+        return stream(aClass.getDeclaredFields())
+                .mapToInt(Field::getModifiers)
+                .anyMatch(modifiers -> !isFinal(modifiers));
+    }
+}
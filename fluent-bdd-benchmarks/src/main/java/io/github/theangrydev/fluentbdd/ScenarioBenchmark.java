@@ -0,0 +1,139 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.fluentbdd;
+
+import org.junit.runner.Description;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a whole scenario with one given, a when, a then verification and a then assertion, where none of the steps
+ * do any work. What is left is the overhead that fluent-bdd adds to a scenario.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScenarioBenchmark {
+
+    private static final Object TEST_RESULT = new Object();
+
+    private final Given lambdaGiven = () -> {};
+    private final When<Object> when = () -> TEST_RESULT;
+    private final ThenVerification<Object> lambdaThenVerification = testResult -> {};
+    private final ThenAssertion<Object, Object> lambdaThenAssertion = testResult -> testResult;
+
+    private final ImmutableGiven immutableGiven = new ImmutableGiven();
+    private final ImmutableThenVerification immutableThenVerification = new ImmutableThenVerification();
+
+    private static class ImmutableGiven implements Given {
+        @Override
+        public void prime() {
+            // no-op
+        }
+    }
+
+    private static class MutableGiven implements Given {
+        private int state;
+
+        @Override
+        public void prime() {
+            state++;
+        }
+    }
+
+    private static class ImmutableThenVerification implements ThenVerification<Object> {
+        @Override
+        public void verify(Object testResult) {
+            // no-op
+        }
+    }
+
+    private static class MutableThenVerification implements ThenVerification<Object> {
+        private int state;
+
+        @Override
+        public void verify(Object testResult) {
+            state++;
+        }
+    }
+
+    private static class DelegatingScenario implements WithFluentBdd<Object> {
+        private final FluentBdd<Object> fluentBdd = new FluentBdd<>();
+
+        @Override
+        public FluentBdd<Object> yatspecFluent() {
+            return fluentBdd;
+        }
+    }
+
+    @Benchmark
+    public FluentBdd<Object> lambdaSteps() {
+        FluentBdd<Object> fluentBdd = new FluentBdd<>();
+        fluentBdd.given(lambdaGiven);
+        fluentBdd.when(when);
+        fluentBdd.then(lambdaThenVerification);
+        fluentBdd.then(lambdaThenAssertion);
+        fluentBdd.succeeded(Description.EMPTY);
+        return fluentBdd;
+    }
+
+    @Benchmark
+    public FluentBdd<Object> immutableSteps() {
+        FluentBdd<Object> fluentBdd = new FluentBdd<>();
+        fluentBdd.given(immutableGiven);
+        fluentBdd.when(when);
+        fluentBdd.then(immutableThenVerification);
+        fluentBdd.then(lambdaThenAssertion);
+        fluentBdd.succeeded(Description.EMPTY);
+        return fluentBdd;
+    }
+
+    @Benchmark
+    public FluentBdd<Object> mutableSteps() {
+        FluentBdd<Object> fluentBdd = new FluentBdd<>();
+        fluentBdd.given(new MutableGiven());
+        fluentBdd.when(when);
+        fluentBdd.then(new MutableThenVerification());
+        fluentBdd.then(lambdaThenAssertion);
+        fluentBdd.succeeded(Description.EMPTY);
+        return fluentBdd;
+    }
+
+    @Benchmark
+    public DelegatingScenario lambdaStepsThroughWithFluentBdd() {
+        DelegatingScenario scenario = new DelegatingScenario();
+        scenario.given(lambdaGiven);
+        scenario.when(when);
+        scenario.then(lambdaThenVerification);
+        scenario.then(lambdaThenAssertion);
+        scenario.yatspecFluent().succeeded(Description.EMPTY);
+        return scenario;
+    }
+}
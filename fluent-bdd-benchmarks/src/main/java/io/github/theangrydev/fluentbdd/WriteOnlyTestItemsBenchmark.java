@@ -0,0 +1,77 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.fluentbdd;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures recording interesting givens and captured inputs and outputs into the yatspec test state of a scenario.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WriteOnlyTestItemsBenchmark {
+
+    private static final Object ITEM = new Object();
+
+    @Param({"1", "10", "100"})
+    private int numberOfItems;
+
+    private String[] keys;
+
+    @Setup
+    public void setUp() {
+        keys = new String[numberOfItems];
+        for (int i = 0; i < numberOfItems; i++) {
+            keys[i] = "Item " + i;
+        }
+    }
+
+    @Benchmark
+    public FluentBdd<Object> addToGivens() {
+        FluentBdd<Object> fluentBdd = new FluentBdd<>();
+        for (String key : keys) {
+            fluentBdd.addToGivens(key, ITEM);
+        }
+        return fluentBdd;
+    }
+
+    @Benchmark
+    public FluentBdd<Object> addToCapturedInputsAndOutputs() {
+        FluentBdd<Object> fluentBdd = new FluentBdd<>();
+        for (String key : keys) {
+            fluentBdd.addToCapturedInputsAndOutputs(key, ITEM);
+        }
+        return fluentBdd;
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.fluentbdd;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * This class represents a system under test that produces its result asynchronously.
+ *
+ * It should act as a builder for use in {@link FluentBdd}, just like a {@link When}.
+ *
+ * @see <a href="https://en.wikipedia.org/wiki/Builder_pattern#Java_example">The Builder Pattern</a>
+ *
+ * @param <TestResult> The type of result the system produces
+ */
+@FunctionalInterface
+public interface AsyncWhen<TestResult> {
+
+    /**
+     * @return A {@link CompletionStage} that will complete with the {@link TestResult} from the system under test
+     */
+    CompletionStage<TestResult> execute();
+}
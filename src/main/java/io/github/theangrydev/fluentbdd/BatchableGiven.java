@@ -0,0 +1,55 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.fluentbdd;
+
+import static java.util.Collections.singletonList;
+
+/**
+ * A {@link Given} that is not primed immediately. Instead, the {@link #priming()} is collected and all the primings
+ * for the same {@link #batch()} are primed together just before they are needed, which is before the {@link When} or
+ * before the next {@link Given} that is not batchable.
+ *
+ * This is useful when priming is expensive per call, e.g. when each call is a round trip to a HTTP stub.
+ *
+ * This class should act as a builder for use in {@link FluentBddCommands}.
+ *
+ * @see <a href="https://en.wikipedia.org/wiki/Builder_pattern#Java_example">The Builder Pattern</a>
+ * @param <Priming> The type of priming that this given contributes to the {@link #batch()}
+ */
+public interface BatchableGiven<Priming> extends Given {
+
+    /**
+     * @return The batch that the {@link #priming()} should be added to. Givens that return the same instance are primed together
+     */
+    GivenBatch<Priming> batch();
+
+    /**
+     * This is called once, when the given is used.
+     *
+     * @return The priming that should be added to the {@link #batch()}
+     */
+    Priming priming();
+
+    /**
+     * Prime this given immediately, in a batch of its own.
+     */
+    @Override
+    default void prime() {
+        batch().prime(singletonList(priming()));
+    }
+}
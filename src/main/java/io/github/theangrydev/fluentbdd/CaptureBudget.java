@@ -0,0 +1,86 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.fluentbdd;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static io.github.theangrydev.fluentbdd.CapturedContent.capturedContent;
+
+/**
+ * Limits how much captured content each scenario can keep in memory.
+ *
+ * A {@link String} that is bigger than the item budget is captured as {@link CapturedContent}, which spills it. Once
+ * the scenario has used up the {@code fluentbdd.capture.maxScenarioBytes} system property (16MiB by default), the
+ * {@link String} and {@link CapturedContent} items that are captured after that are spilled too. The size of other
+ * kinds of items is not known, so they are always kept as they are.
+ *
+ * Items are measured by the bytes they hold in memory: the stored bytes of a {@link CapturedContent} and two bytes per
+ * character of a {@link String}.
+ */
+class CaptureBudget {
+
+    private static final long MAX_SCENARIO_BYTES = Long.getLong("fluentbdd.capture.maxScenarioBytes", 16 * 1024 * 1024);
+
+    private final long maxScenarioBytes;
+    private final AtomicLong scenarioBytes = new AtomicLong();
+
+    CaptureBudget() {
+        this(MAX_SCENARIO_BYTES);
+    }
+
+    CaptureBudget(long maxScenarioBytes) {
+        this.maxScenarioBytes = maxScenarioBytes;
+    }
+
+    public Object withinBudget(Object instance) {
+        Object item = instance;
+        if (item instanceof String && isOverTheItemBudget((String) item)) {
+            item = capturedContent((String) item);
+        }
+        long size = sizeOf(item);
+        if (size == 0 || scenarioBytes.addAndGet(size) <= maxScenarioBytes) {
+            return item;
+        }
+        scenarioBytes.addAndGet(-size);
+        CapturedContent capturedContent = item instanceof CapturedContent ? (CapturedContent) item : capturedContent((String) item);
+        CapturedContent spilled = capturedContent.spilled();
+        scenarioBytes.addAndGet(spilled.storedBytes());
+        return spilled;
+    }
+
+    private static long sizeOf(Object item) {
+        if (item instanceof CapturedContent) {
+            return ((CapturedContent) item).storedBytes();
+        }
+        if (item instanceof String) {
+            return (long) Character.BYTES * ((String) item).length();
+        }
+        return 0;
+    }
+
+    /**
+     * A character takes up at most three bytes in UTF-8, so most strings can be ruled out without encoding them.
+     */
+    private static boolean isOverTheItemBudget(String string) {
+        if (string.length() * 3L <= CapturedContent.MAX_ITEM_BYTES) {
+            return false;
+        }
+        return string.getBytes(StandardCharsets.UTF_8).length > CapturedContent.MAX_ITEM_BYTES;
+    }
+}
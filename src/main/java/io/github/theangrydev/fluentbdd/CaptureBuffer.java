@@ -0,0 +1,128 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.fluentbdd;
+
+import com.googlecode.yatspec.state.givenwhenthen.TestState;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The yatspec {@link TestState} is not thread safe, so test items that are added from other threads (e.g. the threads
+ * of a HTTP stub) are buffered here and only written to the {@link TestState} on the test thread.
+ * <p>
+ * Each item is given a sequence number when it is added, and the items are written in sequence number order, so the
+ * order in the {@link TestState} is the order in which the items were added. A thread can take a sequence number and
+ * then be overtaken by another thread before its item is buffered, so only the items up to the first missing sequence
+ * number are written, and the rest wait on the test thread until the gap is filled or the scenario has finished.
+ */
+class CaptureBuffer {
+
+    private static final Comparator<Capture> IN_SEQUENCE = Comparator.comparingLong(capture -> capture.sequence);
+
+    private final AtomicLong nextSequence = new AtomicLong();
+    private final Queue<Capture> captures;
+
+    // Only used on the test thread
+    private final Queue<Capture> waitingForEarlierCaptures = new PriorityQueue<>(IN_SEQUENCE);
+    private long nextSequenceToWrite;
+
+    CaptureBuffer() {
+        this(new ConcurrentLinkedQueue<>());
+    }
+
+    CaptureBuffer(Queue<Capture> captures) {
+        this.captures = captures;
+    }
+
+    public void addToGivens(String key, Object instance) {
+        captures.add(new Capture(nextSequence.getAndIncrement(), true, key, instance));
+    }
+
+    public void addToCapturedInputsAndOutputs(String key, Object instance) {
+        captures.add(new Capture(nextSequence.getAndIncrement(), false, key, instance));
+    }
+
+    public boolean isEmpty() {
+        return captures.isEmpty();
+    }
+
+    /**
+     * Write the buffered items that have no earlier items still missing. This must only be called on the test thread.
+     *
+     * @param testState The state to write the buffered items to
+     */
+    public void drainTo(TestState testState) {
+        takeBufferedCaptures();
+        Capture capture = waitingForEarlierCaptures.peek();
+        while (capture != null && capture.sequence == nextSequenceToWrite) {
+            waitingForEarlierCaptures.remove().writeTo(testState);
+            nextSequenceToWrite++;
+            capture = waitingForEarlierCaptures.peek();
+        }
+    }
+
+    /**
+     * Write all the buffered items, in order, even if some earlier ones are still missing. This must only be called on
+     * the test thread, once the scenario has finished.
+     *
+     * @param testState The state to write the buffered items to
+     */
+    public void flushTo(TestState testState) {
+        takeBufferedCaptures();
+        Capture capture = waitingForEarlierCaptures.poll();
+        while (capture != null) {
+            capture.writeTo(testState);
+            nextSequenceToWrite = capture.sequence + 1;
+            capture = waitingForEarlierCaptures.poll();
+        }
+    }
+
+    private void takeBufferedCaptures() {
+        Capture capture = captures.poll();
+        while (capture != null) {
+            waitingForEarlierCaptures.add(capture);
+            capture = captures.poll();
+        }
+    }
+
+    static final class Capture {
+        private final long sequence;
+        private final boolean given;
+        private final String key;
+        private final Object instance;
+
+        private Capture(long sequence, boolean given, String key, Object instance) {
+            this.sequence = sequence;
+            this.given = given;
+            this.key = key;
+            this.instance = instance;
+        }
+
+        private void writeTo(TestState testState) {
+            if (given) {
+                testState.interestingGivens.add(key, instance);
+            } else {
+                testState.capturedInputAndOutputs.add(key, instance);
+            }
+        }
+    }
+}
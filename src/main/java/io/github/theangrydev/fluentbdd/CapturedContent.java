@@ -0,0 +1,409 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.fluentbdd;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import static java.lang.String.format;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+
+/**
+ * Content that can be added to the {@link WriteOnlyTestItems}, addressed by a hash of the content.
+ *
+ * Only one instance is kept for each distinct piece of content in the JVM, so when many scenarios capture the same
+ * content (e.g. the same stubbed response) they all share a single copy of it instead of holding their own. The
+ * instance is released once no scenario refers to it any more, along with its entry in the index of content by hash.
+ *
+ * The content is kept as compressed bytes and is only turned back into a {@link String} when it is rendered, which is
+ * when the report is written. The rendered {@link String} is not kept.
+ *
+ * Content that is bigger than the {@code fluentbdd.capture.maxItemBytes} system property (1MiB by default) is spilled
+ * to a file in the {@code fluentbdd.capture.spillDirectory} and only the start of it is kept in memory. By default the
+ * directory is {@code fluent-bdd-captures} in the yatspec output directory, so the files are kept alongside the reports
+ * that refer to them. The rendered content ends with the path of the file, relative to the yatspec output directory
+ * when it is inside it.
+ */
+public final class CapturedContent {
+
+    static final long MAX_ITEM_BYTES = Long.getLong("fluentbdd.capture.maxItemBytes", 1024 * 1024);
+
+    private static final int PREVIEW_BYTES = 4096;
+    private static final int BUFFER_SIZE = 4096;
+
+    private static final ConcurrentMap<String, InternedContent> CONTENT_BY_HASH = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, InternedContent> SPILLED_CONTENT_BY_HASH = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<CapturedContent> RELEASED_CONTENT = new ReferenceQueue<>();
+    private static final CaptureStatistics STATISTICS = new CaptureStatistics();
+
+    private final String contentHash;
+    private final byte[] bytes;
+    private final boolean deflated;
+    private final long contentBytes;
+    private final Path spillFile;
+
+    private CapturedContent(String contentHash, byte[] bytes, boolean deflated, long contentBytes, Path spillFile) {
+        this.contentHash = contentHash;
+        this.bytes = bytes;
+        this.deflated = deflated;
+        this.contentBytes = contentBytes;
+        this.spillFile = spillFile;
+    }
+
+    /**
+     * @param content The content to capture
+     * @return The one instance of {@link CapturedContent} that holds the given content
+     */
+    public static CapturedContent capturedContent(String content) {
+        byte[] utf8 = content.getBytes(StandardCharsets.UTF_8);
+        String contentHash = sha256(utf8);
+        if (utf8.length > MAX_ITEM_BYTES) {
+            return intern(SPILLED_CONTENT_BY_HASH, contentHash, () -> spill(contentHash, utf8));
+        }
+        return intern(CONTENT_BY_HASH, contentHash, () -> compress(contentHash, utf8));
+    }
+
+    /**
+     * @return The number of distinct pieces of content that are currently held in memory
+     */
+    public static int distinctContents() {
+        forgetReleasedContent();
+        int distinctContents = 0;
+        for (InternedContent reference : CONTENT_BY_HASH.values()) {
+            if (reference.get() != null) {
+                distinctContents++;
+            }
+        }
+        return distinctContents;
+    }
+
+    /**
+     * Nothing is logged by fluent-bdd itself, so call this e.g. when the tests have finished to see the totals.
+     *
+     * @return A summary of how much captured content is held in memory and how much has been spilled to disk so far
+     */
+    public static String captureMemoryReport() {
+        forgetReleasedContent();
+        return STATISTICS.toString();
+    }
+
+    /**
+     * @return The size in bytes above which content is spilled to a file, so that callers can avoid building content
+     * that is much bigger than will be kept
+     */
+    public static long maxItemBytes() {
+        return MAX_ITEM_BYTES;
+    }
+
+    /**
+     * @return The SHA-256 hash of the content, in hex
+     */
+    public String contentHash() {
+        return contentHash;
+    }
+
+    /**
+     * @return The number of bytes that are kept in memory for the content
+     */
+    public int storedBytes() {
+        return bytes.length;
+    }
+
+    /**
+     * @return Whether the content was spilled to a file, in which case only the start of it is kept in memory
+     */
+    public boolean isSpilled() {
+        return spillFile != null;
+    }
+
+    /**
+     * @return This content if it is already spilled, otherwise the same content spilled to a file
+     */
+    CapturedContent spilled() {
+        if (isSpilled()) {
+            return this;
+        }
+        return intern(SPILLED_CONTENT_BY_HASH, contentHash, () -> spill(contentHash, content()));
+    }
+
+    @Override
+    public String toString() {
+        String content = new String(content(), StandardCharsets.UTF_8);
+        if (isSpilled()) {
+            return format("%s%n... showing the first %d of %d bytes, the rest is in %s", content, bytes.length, contentBytes, SpillDirectory.location(spillFile));
+        }
+        return content;
+    }
+
+    private byte[] content() {
+        return deflated ? inflate(bytes) : bytes;
+    }
+
+    /**
+     * The content is created outside of the map, so that compressing or spilling it does not block other threads. If
+     * two threads create the same content at once, the first one to be put in the map is the one that is kept.
+     */
+    private static CapturedContent intern(ConcurrentMap<String, InternedContent> contentByHash, String contentHash, Supplier<CapturedContent> factory) {
+        forgetReleasedContent();
+        CapturedContent interned = get(contentByHash.get(contentHash));
+        if (interned != null) {
+            return interned;
+        }
+        CapturedContent created = factory.get();
+        InternedContent reference = new InternedContent(created, contentByHash);
+        while (true) {
+            InternedContent existing = contentByHash.putIfAbsent(contentHash, reference);
+            if (existing == null) {
+                STATISTICS.keptInMemory(reference);
+                return created;
+            }
+            interned = existing.get();
+            if (interned != null) {
+                return interned;
+            }
+            if (contentByHash.replace(contentHash, existing, reference)) {
+                STATISTICS.keptInMemory(reference);
+                return created;
+            }
+        }
+    }
+
+    private static CapturedContent get(InternedContent reference) {
+        return reference == null ? null : reference.get();
+    }
+
+    /**
+     * Remove the entries of content that has been garbage collected, so that the maps only grow with the content that
+     * is still in use.
+     */
+    private static void forgetReleasedContent() {
+        Reference<? extends CapturedContent> released = RELEASED_CONTENT.poll();
+        while (released != null) {
+            InternedContent internedContent = (InternedContent) released;
+            if (internedContent.contentByHash.remove(internedContent.contentHash, internedContent)) {
+                STATISTICS.released(internedContent);
+            }
+            released = RELEASED_CONTENT.poll();
+        }
+    }
+
+    /**
+     * Content that does not get smaller when it is compressed (e.g. very short content) is kept as it is.
+     */
+    private static CapturedContent compress(String contentHash, byte[] utf8) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(utf8);
+            deflater.finish();
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!deflater.finished() && compressed.size() < utf8.length) {
+                compressed.write(buffer, 0, deflater.deflate(buffer));
+            }
+            if (deflater.finished() && compressed.size() < utf8.length) {
+                return new CapturedContent(contentHash, compressed.toByteArray(), true, utf8.length, null);
+            }
+            return new CapturedContent(contentHash, utf8, false, utf8.length, null);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * The file is written under a temporary name and then moved into place, so that a file with the final name always
+     * holds all of the content, even if the same content is being spilled by another thread at the same time.
+     */
+    private static CapturedContent spill(String contentHash, byte[] utf8) {
+        Path spillFile = SpillDirectory.DIRECTORY.resolve(contentHash + ".txt");
+        if (!Files.exists(spillFile)) {
+            try {
+                Path partialFile = Files.createTempFile(SpillDirectory.DIRECTORY, contentHash, ".partial");
+                Files.write(partialFile, utf8);
+                moveIntoPlace(partialFile, spillFile);
+            } catch (IOException e) {
+                throw new UncheckedIOException(format("Could not spill captured content to '%s'", spillFile), e);
+            }
+        }
+        STATISTICS.spilled(contentHash, utf8.length);
+        byte[] preview = new byte[previewLength(utf8)];
+        System.arraycopy(utf8, 0, preview, 0, preview.length);
+        return new CapturedContent(contentHash, preview, false, utf8.length, spillFile);
+    }
+
+    private static void moveIntoPlace(Path partialFile, Path spillFile) throws IOException {
+        try {
+            Files.move(partialFile, spillFile, ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // The same content was spilled by another thread in the meantime, so the file already holds it
+            Files.delete(partialFile);
+        }
+    }
+
+    /**
+     * The preview is cut at the start of a character, so that no character is split in two.
+     */
+    private static int previewLength(byte[] utf8) {
+        int previewLength = Math.min(utf8.length, PREVIEW_BYTES);
+        while (previewLength > 0 && previewLength < utf8.length && (utf8[previewLength] & 0xC0) == 0x80) {
+            previewLength--;
+        }
+        return previewLength;
+    }
+
+    private static byte[] inflate(byte[] deflated) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(deflated);
+            ByteArrayOutputStream inflated = new ByteArrayOutputStream();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!inflater.finished()) {
+                int inflatedBytes = inflater.inflate(buffer);
+                if (inflatedBytes == 0 && inflater.needsInput()) {
+                    throw new IllegalStateException("Captured content was truncated");
+                }
+                inflated.write(buffer, 0, inflatedBytes);
+            }
+            return inflated.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Captured content could not be decompressed", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static String sha256(byte[] content) {
+        byte[] digest = sha256Digest().digest(content);
+        StringBuilder hex = new StringBuilder(digest.length * 2);
+        for (byte b : digest) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    private static MessageDigest sha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required to be supported by every JVM", e);
+        }
+    }
+
+    /**
+     * The entry for a piece of content in one of the maps of content by hash, which is removed from the map once the
+     * content has been garbage collected. The sizes are kept so that the statistics can be updated at that point.
+     */
+    private static final class InternedContent extends WeakReference<CapturedContent> {
+        private final String contentHash;
+        private final long contentBytes;
+        private final long storedBytes;
+        private final ConcurrentMap<String, InternedContent> contentByHash;
+
+        private InternedContent(CapturedContent capturedContent, ConcurrentMap<String, InternedContent> contentByHash) {
+            super(capturedContent, RELEASED_CONTENT);
+            this.contentHash = capturedContent.contentHash;
+            this.contentBytes = capturedContent.contentBytes;
+            this.storedBytes = capturedContent.bytes.length;
+            this.contentByHash = contentByHash;
+        }
+    }
+
+    /**
+     * The directory is only created the first time that something is spilled. The yatspec output directory is worked
+     * out the same way that yatspec does it.
+     */
+    private static final class SpillDirectory {
+        private static final Path YATSPEC_OUTPUT_DIRECTORY = Paths.get(System.getProperty("yatspec.output.dir", System.getProperty("java.io.tmpdir"))).toAbsolutePath();
+        private static final Path DIRECTORY = spillDirectory();
+
+        private static Path spillDirectory() {
+            try {
+                String configured = System.getProperty("fluentbdd.capture.spillDirectory");
+                if (configured == null) {
+                    return Files.createDirectories(YATSPEC_OUTPUT_DIRECTORY.resolve("fluent-bdd-captures"));
+                }
+                return Files.createDirectories(Paths.get(configured).toAbsolutePath());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not create the directory to spill captured content to", e);
+            }
+        }
+
+        private static String location(Path spillFile) {
+            if (spillFile.startsWith(YATSPEC_OUTPUT_DIRECTORY)) {
+                return format("%s in the yatspec output directory", YATSPEC_OUTPUT_DIRECTORY.relativize(spillFile));
+            }
+            return spillFile.toString();
+        }
+    }
+
+    /**
+     * The content held in memory goes down as well as up, as content is garbage collected. Spilled content is only
+     * counted once per run, however many times it is spilled again after being garbage collected.
+     */
+    private static final class CaptureStatistics {
+        private final AtomicLong contents = new AtomicLong();
+        private final AtomicLong contentBytes = new AtomicLong();
+        private final AtomicLong bytesInMemory = new AtomicLong();
+        private final AtomicLong peakBytesInMemory = new AtomicLong();
+        private final Set<String> spilledContentHashes = ConcurrentHashMap.newKeySet();
+        private final AtomicLong spilledBytes = new AtomicLong();
+
+        private void keptInMemory(InternedContent internedContent) {
+            contents.incrementAndGet();
+            contentBytes.addAndGet(internedContent.contentBytes);
+            long currentBytesInMemory = bytesInMemory.addAndGet(internedContent.storedBytes);
+            peakBytesInMemory.accumulateAndGet(currentBytesInMemory, Math::max);
+        }
+
+        private void released(InternedContent internedContent) {
+            contents.decrementAndGet();
+            contentBytes.addAndGet(-internedContent.contentBytes);
+            bytesInMemory.addAndGet(-internedContent.storedBytes);
+        }
+
+        private void spilled(String contentHash, long spilledContentBytes) {
+            if (spilledContentHashes.add(contentHash)) {
+                spilledBytes.addAndGet(spilledContentBytes);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return format("Holding %d distinct contents (%d bytes) using %d bytes of memory (at most %d bytes at once), %d distinct contents (%d bytes) were spilled to disk",
+                    contents.get(), contentBytes.get(), bytesInMemory.get(), peakBytesInMemory.get(), spilledContentHashes.size(), spilledBytes.get());
+        }
+    }
+}
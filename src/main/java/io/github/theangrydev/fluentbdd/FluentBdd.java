@@ -18,68 +18,310 @@
 package io.github.theangrydev.fluentbdd;
 
 import com.googlecode.yatspec.state.givenwhenthen.TestState;
+import org.junit.AssumptionViolatedException;
+import org.junit.ClassRule;
 import org.junit.Rule;
+import org.junit.rules.TestRule;
 import org.junit.rules.TestWatcher;
 import org.junit.runner.Description;
 
+import java.time.Duration;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+
 /**
  * Use this as the base class for your acceptance tests.
+ * <p>
+ * All the state of a scenario is held by the {@link FluentBdd} instance, and JUnit creates a new instance of the test
+ * class (and therefore this rule) for each test method. This means that scenarios can be run in parallel, e.g. using the
+ * JUnit {@link org.junit.experimental.ParallelComputer} or the Maven Surefire parallel options, as long as the
+ * infrastructure that the givens and whens use is not shared between scenarios.
  *
  * @param <TestResult> The type of test result produced by the {@link When}
  */
 @SuppressWarnings("PMD.TooManyMethods") // This is part of the API design
 public class FluentBdd<TestResult> extends TestWatcher implements FluentBddCommands<TestResult> {
 
+    private static final Duration DEFAULT_ASYNC_TIMEOUT = Duration.ofSeconds(30);
+
     private final Verification<TestResult> verification = new Verification<>();
 
     private final TestState state = new TestState();
 
+    private final PendingGivenBatches pendingGivenBatches = new PendingGivenBatches();
+
+    private final StepTimings stepTimings;
+
+    private final LatencyBudget latencyBudget = new LatencyBudget(this);
+
+    private final SystemsUnderTest systemsUnderTest = new SystemsUnderTest();
+
+    private final MemoisedThens<TestResult> memoisedThens = new MemoisedThens<>();
+
+    private final CaptureBuffer captureBuffer = new CaptureBuffer();
+
+    private final CaptureBudget captureBudget = new CaptureBudget();
+
+    private volatile Thread testThread = Thread.currentThread();
+
+    private final Duration asyncTimeout;
+
     private TestResult testResult;
 
+    private PendingTestResult<TestResult> pendingTestResult;
+
+    private LazyWhen<TestResult> lazyWhen;
+
+    private Supplier<TestResult> lazyTestResult;
+
+    private Outcome scenarioOutcome;
+
+    /**
+     * Stops the {@link SystemUnderTestScope#PER_CLASS} systems under test of a test class that extends this class, when
+     * all of its scenarios have finished.
+     */
+    @ClassRule
+    public static final TestRule PER_CLASS_SYSTEMS_UNDER_TEST = perClassSystemsUnderTest();
+
     @Rule
     public final TestWatcher testWatcher = this;
 
+    /**
+     * Thens will wait up to 30 seconds for the result of a {@link #whenAsync(AsyncWhen)}.
+     */
+    public FluentBdd() {
+        this(DEFAULT_ASYNC_TIMEOUT);
+    }
+
+    /**
+     * @param asyncTimeout How long the thens should wait for the result of a {@link #whenAsync(AsyncWhen)}
+     */
+    public FluentBdd(Duration asyncTimeout) {
+        this(asyncTimeout, FluentBddListeners.discoveredListeners());
+    }
+
+    /**
+     * @param fluentBddListeners The listeners to tell about this scenario, instead of the discovered ones
+     */
+    FluentBdd(FluentBddListeners fluentBddListeners) {
+        this(DEFAULT_ASYNC_TIMEOUT, fluentBddListeners);
+    }
+
+    private FluentBdd(Duration asyncTimeout, FluentBddListeners fluentBddListeners) {
+        super();
+        this.asyncTimeout = asyncTimeout;
+        stepTimings = new StepTimings(fluentBddListeners);
+        stepTimings.addListener(latencyBudget);
+    }
+
+    /**
+     * The listener will be told how long each step took, as soon as the step has finished.
+     * The step timings are also added to the captured inputs and outputs when the test has finished.
+     * To listen to every scenario instead, see {@link FluentBddListener}.
+     *
+     * @param stepTimingListener The listener to add
+     * @return This instance, for chaining
+     */
+    public FluentBdd<TestResult> withStepTimingListener(StepTimingListener stepTimingListener) {
+        stepTimings.addListener(stepTimingListener);
+        return this;
+    }
+
+    /**
+     * The {@link MaxDuration} and {@link Percentile} latency budgets are not checked for this scenario, e.g. because its
+     * whens are answered from a recording rather than by the system under test, so their latency means nothing.
+     *
+     * @return This instance, for chaining
+     */
+    public FluentBdd<TestResult> withoutLatencyBudgets() {
+        latencyBudget.skip();
+        return this;
+    }
+
+    /**
+     * Obtain a system under test for this scenario, starting one if there is not an idle one available in the scope.
+     * The system will be reset, or stopped if it is {@link SystemUnderTestScope#PER_TEST}, when the scenario has
+     * finished. This should be called while the scenario is running, e.g. in a {@link org.junit.Before} method.
+     *
+     * @param scope   How widely the system should be shared between scenarios
+     * @param type    The type of system, which identifies it within the scope
+     * @param factory Creates a new system when there is not an idle one available
+     * @param <T>     The type of system
+     * @return A system that has been started and is not being used by any other scenario
+     */
+    public <T extends SystemUnderTest> T systemUnderTest(SystemUnderTestScope scope, Class<T> type, Supplier<T> factory) {
+        return systemsUnderTest.acquire(scope, type, factory);
+    }
+
+    /**
+     * A test class that uses this as a {@link Rule} rather than extending it must declare the class rule that this
+     * makes in order to use {@link SystemUnderTestScope#PER_CLASS} systems under test, e.g.
+     * <pre>{@code
+     * @ClassRule
+     * public static final TestRule PER_CLASS_SYSTEMS_UNDER_TEST = FluentBdd.perClassSystemsUnderTest();
+     * }</pre>
+     *
+     * @return A class rule that stops the {@link SystemUnderTestScope#PER_CLASS} systems under test of the test class
+     * when all of its scenarios have finished
+     */
+    public static TestRule perClassSystemsUnderTest() {
+        return SystemsUnderTest.perClassScope();
+    }
+
+    @Override
+    protected void starting(Description description) {
+        testThread = Thread.currentThread();
+        stepTimings.scenarioStarted(description.getDisplayName());
+        latencyBudget.scenarioStarted(description);
+        systemsUnderTest.scenarioStarted(description.getTestClass());
+    }
+
     @Override
     protected void succeeded(Description description) {
+        scenarioOutcome = Outcome.FAILED;
         verification.checkThenHasBeenUsed();
+        scenarioOutcome = Outcome.SUCCEEDED;
+    }
+
+    @Override
+    protected void failed(Throwable failure, Description description) {
+        stepTimings.stepFailed();
+        scenarioOutcome = Outcome.FAILED;
+    }
+
+    @Override
+    protected void skipped(AssumptionViolatedException assumptionViolatedException, Description description) {
+        scenarioOutcome = Outcome.SKIPPED;
+    }
+
+    @Override
+    protected void finished(Description description) {
+        if (!stepTimings.isEmpty()) {
+            addToCapturedInputsAndOutputs("Step Timings", stepTimings);
+        }
+        stepTimings.scenarioFinished(scenarioOutcome);
+        try {
+            systemsUnderTest.scenarioFinished();
+        } finally {
+            captureBuffer.flushTo(state);
+        }
     }
 
     /**
      * You should aim to never access the state directly, but you might need to (e.g. global shared state).
      * Call {@link #addToGivens(String, Object)} when possible or make use of the {@link WriteOnlyTestItems} interface.
      * Call {@link #addToCapturedInputsAndOutputs(String, Object)} when possible or make use of the {@link WriteOnlyTestItems} interface.
+     * <p>
+     * When this is called on the test thread, any test items that were added from other threads are written to the
+     * state first.
      */
     @Override
     public TestState testState() {
+        drainCapturesOnTheTestThread();
         return state;
     }
 
+    /**
+     * This is safe to call from any thread. Items added from other threads are written to the {@link #testState()} on
+     * the test thread, in the order they were added.
+     */
+    @Override
+    public void addToGivens(String key, Object instance) {
+        captureBuffer.addToGivens(key, instance);
+        drainCapturesOnTheTestThread();
+    }
+
+    /**
+     * This is safe to call from any thread. Items added from other threads are written to the {@link #testState()} on
+     * the test thread, in the order they were added.
+     * <p>
+     * Large {@link String} and {@link CapturedContent} items are spilled to disk, see {@link CapturedContent}.
+     */
+    @Override
+    public void addToCapturedInputsAndOutputs(String key, Object instance) {
+        captureBuffer.addToCapturedInputsAndOutputs(key, captureBudget.withinBudget(instance));
+        drainCapturesOnTheTestThread();
+    }
+
+    private void drainCapturesOnTheTestThread() {
+        if (Thread.currentThread() == testThread && !captureBuffer.isEmpty()) {
+            captureBuffer.drainTo(state);
+        }
+    }
+
     @Override
     public void and(Given given) {
         given(given);
     }
 
     /**
-     * Prime the given immediately.
+     * Prime the given immediately, unless it is a {@link BatchableGiven}.
      *
      * @param given The first given in the acceptance test, which should be built up inside the brackets
      */
     @Override
     public void given(Given given) {
         verification.checkGivenIsAllowed(given);
-        given.prime();
+        if (given instanceof BatchableGiven) {
+            pendingGivenBatches.add((BatchableGiven<?>) given);
+        } else {
+            pendingGivenBatches.prime(stepTimings);
+            stepTimings.stepStarted(Step.GIVEN, given);
+            given.prime();
+            stepTimings.stepFinished();
+        }
         verification.recordGiven(given);
     }
 
     @Override
     public <T extends When<TestResult>> void when(T when) {
         verification.checkWhenIsAllowed();
+        pendingGivenBatches.prime(stepTimings);
+        stepTimings.stepStarted(Step.WHEN, when);
         testResult = when.execute();
+        stepTimings.stepFinished();
+        latencyBudget.whenExecuted(testResult);
         verification.recordWhen(when, testResult);
     }
 
+    @Override
+    public <T extends AsyncWhen<TestResult>> void whenAsync(T when) {
+        verification.checkWhenIsAllowed();
+        latencyBudget.percentileCannotBeCheckedAgainst("whenAsync", when);
+        pendingGivenBatches.prime(stepTimings);
+        long startNanos = stepTimings.asyncStepStarted(Step.WHEN, when);
+        CompletionStage<TestResult> stage = when.execute();
+        verification.checkTestResultIsPresent(when, stage);
+        pendingTestResult = new PendingTestResult<>(when, stage.toCompletableFuture(), asyncTimeout, startNanos);
+        verification.recordDeferredWhen();
+    }
+
+    /**
+     * The step timing and any {@link MaxDuration} budget only cover invoking the system under test, not capturing the
+     * {@link TestResult}.
+     */
+    @Override
+    public <T extends LazyWhen<TestResult>> void whenLazy(T when) {
+        verification.checkWhenIsAllowed();
+        latencyBudget.percentileCannotBeCheckedAgainst("whenLazy", when);
+        pendingGivenBatches.prime(stepTimings);
+        stepTimings.stepStarted(Step.WHEN, when);
+        Supplier<TestResult> testResultSupplier = when.execute();
+        stepTimings.stepFinished();
+        verification.checkTestResultIsPresent(when, testResultSupplier);
+        lazyWhen = when;
+        lazyTestResult = testResultSupplier;
+        verification.recordDeferredWhen();
+    }
+
+    /**
+     * A {@link RepeatedWhen} that is used as a given is not checked against any {@link Percentile} budget.
+     */
     @Override
     public void given(When<TestResult> when) {
+        if (when instanceof RepeatedWhen) {
+            latencyBudget.percentileCannotBeCheckedAgainst("given", when);
+        }
         given((Given) when::execute);
     }
 
@@ -91,7 +333,18 @@ public class FluentBdd<TestResult> extends TestWatcher implements FluentBddComma
     @Override
     public <Then> Then then(ThenAssertion<Then, TestResult> thenAssertion) {
         verification.checkThenAssertionIsAllowed(thenAssertion);
-        return thenAssertion.then(testResult);
+        TestResult result = testResult();
+        stepTimings.stepStarted(Step.THEN, thenAssertion);
+        Then then = then(thenAssertion, result);
+        stepTimings.stepFinished();
+        return then;
+    }
+
+    private <Then> Then then(ThenAssertion<Then, TestResult> thenAssertion, TestResult result) {
+        if (thenAssertion instanceof MemoisedThenAssertion) {
+            return memoisedThens.then((MemoisedThenAssertion<Then, TestResult>) thenAssertion, result);
+        }
+        return thenAssertion.then(result);
     }
 
     @Override
@@ -104,10 +357,37 @@ public class FluentBdd<TestResult> extends TestWatcher implements FluentBddComma
         then(thenVerification);
     }
 
+    /**
+     * The result of a {@link LazyWhen} is not captured for a verification, see {@link LazyWhen}.
+     */
     @Override
     public void then(ThenVerification<TestResult> thenVerification) {
         verification.checkThenVerificationIsAllowed(thenVerification);
-        thenVerification.verify(testResult);
+        TestResult result = awaitTestResult();
+        stepTimings.stepStarted(Step.THEN, thenVerification);
+        thenVerification.verify(result);
+        stepTimings.stepFinished();
         verification.recordThenVerification(thenVerification);
     }
+
+    private TestResult testResult() {
+        awaitTestResult();
+        if (lazyTestResult != null) {
+            testResult = lazyTestResult.get();
+            verification.checkTestResultIsPresent(lazyWhen, testResult);
+            lazyTestResult = null;
+        }
+        return testResult;
+    }
+
+    private TestResult awaitTestResult() {
+        if (pendingTestResult != null) {
+            stepTimings.stepResumed(Step.WHEN, pendingTestResult.when(), pendingTestResult.startNanos());
+            testResult = pendingTestResult.await();
+            stepTimings.stepFinished(pendingTestResult.durationNanos());
+            verification.checkTestResultIsPresent(pendingTestResult.when(), testResult);
+            pendingTestResult = null;
+        }
+        return testResult;
+    }
 }
@@ -29,7 +29,8 @@ import org.junit.rules.TestRule;
 public interface FluentBddCommands<TestResult> extends TestRule, WithTestState, WriteOnlyTestItems {
 
     /**
-     * Prime the given immediately.
+     * Prime the given immediately, unless it is a {@link BatchableGiven}, in which case it will be primed along with
+     * the rest of its batch before the {@link When}.
      *
      * @param given The first given in the acceptance test, which should be built up inside the brackets
      */
@@ -38,7 +39,8 @@ public interface FluentBddCommands<TestResult> extends TestRule, WithTestState,
     /**
      * Same as {@link #given(Given)}.
      * <p>
-     * Prime the given immediately.
+     * Prime the given immediately, unless it is a {@link BatchableGiven}, in which case it will be primed along with
+     * the rest of its batch before the {@link When}.
      *
      * @param given The first given in the acceptance test, which should be built up inside the brackets
      */
@@ -52,6 +54,24 @@ public interface FluentBddCommands<TestResult> extends TestRule, WithTestState,
      */
     <T extends When<TestResult>> void when(T when);
 
+    /**
+     * Invoke the system under test without waiting for it to finish.
+     * The {@link TestResult} will be waited for when it is needed by the first assertion.
+     *
+     * @param when The asynchronous system under test, which should be built up inside the brackets
+     * @param <T>  The type of {@link AsyncWhen}
+     */
+    <T extends AsyncWhen<TestResult>> void whenAsync(T when);
+
+    /**
+     * Invoke the system under test, but only capture the {@link TestResult} when it is needed by the first
+     * {@link ThenAssertion}. A {@link ThenVerification} does not capture it, see {@link LazyWhen}.
+     *
+     * @param when The system under test, which should be built up inside the brackets
+     * @param <T>  The type of {@link LazyWhen}
+     */
+    <T extends LazyWhen<TestResult>> void whenLazy(T when);
+
     /**
      * Adapt the 'when' to a 'given'. This is a common pattern when e.g. calling an endpoint that changes some state in the database.
      * This is the equivalent of {@link #given(Given)}.
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.fluentbdd;
+
+/**
+ * A listener that is told about the lifecycle of every scenario and step, e.g. to feed a latency histogram.
+ * <p>
+ * Implementations are discovered once using the {@link java.util.ServiceLoader}, so they must have a public no-args
+ * constructor and be listed in a {@code META-INF/services/io.github.theangrydev.fluentbdd.FluentBddListener} file.
+ * <p>
+ * The same instances are shared by every scenario, so they must be thread safe if scenarios are run in parallel.
+ * The events are passed as arguments rather than event objects, so no garbage is created per step.
+ */
+public interface FluentBddListener {
+
+    /**
+     * @param scenarioName The JUnit display name of the scenario
+     */
+    default void scenarioStarted(String scenarioName) {
+        // Not all listeners are interested in every event
+    }
+
+    /**
+     * @param scenarioName The JUnit display name of the scenario
+     * @param step The kind of step that has started
+     * @param stepClass The class of the step that has started
+     */
+    default void stepStarted(String scenarioName, Step step, Class<?> stepClass) {
+        // Not all listeners are interested in every event
+    }
+
+    /**
+     * @param scenarioName The JUnit display name of the scenario
+     * @param step The kind of step that has finished
+     * @param stepClass The class of the step that has finished
+     * @param durationNanos How long the step took, in nanoseconds
+     * @param outcome Whether the step succeeded or failed. A {@link ThenAssertion} step only produces the object
+     *                that the assertions are chained on, so it has succeeded before those assertions are run. A failed
+     *                assertion is reported as the {@link #scenarioFinished} outcome instead
+     */
+    default void stepFinished(String scenarioName, Step step, Class<?> stepClass, long durationNanos, Outcome outcome) {
+        // Not all listeners are interested in every event
+    }
+
+    /**
+     * @param scenarioName The JUnit display name of the scenario
+     * @param durationNanos How long the scenario took, in nanoseconds
+     * @param outcome Whether the scenario succeeded, failed or was skipped
+     */
+    default void scenarioFinished(String scenarioName, long durationNanos, Outcome outcome) {
+        // Not all listeners are interested in every event
+    }
+}
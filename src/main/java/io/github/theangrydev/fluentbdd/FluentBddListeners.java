@@ -0,0 +1,78 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.fluentbdd;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * The listeners are discovered once per class loader, but a scenario can be given its own listeners instead, so that
+ * a listener that is only needed by one test does not hear about every other scenario in the test run. When there are
+ * no listeners, each notification is a loop over an empty array, which does not allocate anything.
+ */
+final class FluentBddListeners {
+
+    private static final FluentBddListeners DISCOVERED = new FluentBddListeners(discoverListeners());
+
+    private final FluentBddListener[] listeners;
+
+    FluentBddListeners(FluentBddListener... listeners) {
+        this.listeners = listeners.clone();
+    }
+
+    static FluentBddListeners discoveredListeners() {
+        return DISCOVERED;
+    }
+
+    private static FluentBddListener[] discoverListeners() {
+        List<FluentBddListener> listeners = new ArrayList<>();
+        for (FluentBddListener listener : ServiceLoader.load(FluentBddListener.class)) {
+            listeners.add(listener);
+        }
+        return listeners.toArray(new FluentBddListener[listeners.size()]);
+    }
+
+    boolean isEmpty() {
+        return listeners.length == 0;
+    }
+
+    void scenarioStarted(String scenarioName) {
+        for (FluentBddListener listener : listeners) {
+            listener.scenarioStarted(scenarioName);
+        }
+    }
+
+    void stepStarted(String scenarioName, Step step, Class<?> stepClass) {
+        for (FluentBddListener listener : listeners) {
+            listener.stepStarted(scenarioName, step, stepClass);
+        }
+    }
+
+    void stepFinished(String scenarioName, Step step, Class<?> stepClass, long durationNanos, Outcome outcome) {
+        for (FluentBddListener listener : listeners) {
+            listener.stepFinished(scenarioName, step, stepClass, durationNanos, outcome);
+        }
+    }
+
+    void scenarioFinished(String scenarioName, long durationNanos, Outcome outcome) {
+        for (FluentBddListener listener : listeners) {
+            listener.scenarioFinished(scenarioName, durationNanos, outcome);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.fluentbdd;
+
+import java.util.List;
+
+/**
+ * Primes several {@link BatchableGiven} instances in one go.
+ *
+ * For example, this could mean priming a HTTP stub with several canned responses in a single request.
+ *
+ * @param <Priming> The type of priming that is collected from each {@link BatchableGiven}
+ */
+@FunctionalInterface
+public interface GivenBatch<Priming> {
+
+    /**
+     * Prime all of the collected primings immediately, which will make a change that is visible to the system under
+     * test (that is implemented in the {@link When}).
+     *
+     * @param primings The primings, in the order that their {@link BatchableGiven} instances were used
+     */
+    void prime(List<Priming> primings);
+}
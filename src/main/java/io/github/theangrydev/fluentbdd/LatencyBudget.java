@@ -0,0 +1,115 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.fluentbdd;
+
+import org.junit.runner.Description;
+
+import java.util.Locale;
+
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+class LatencyBudget implements StepTimingListener {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final WriteOnlyTestItems writeOnlyTestItems;
+
+    private MaxDuration testMethodMaxDuration;
+    private Percentile testMethodPercentile;
+    private String testMethodName;
+    private boolean skipped;
+
+    LatencyBudget(WriteOnlyTestItems writeOnlyTestItems) {
+        this.writeOnlyTestItems = writeOnlyTestItems;
+    }
+
+    public void scenarioStarted(Description description) {
+        testMethodMaxDuration = description.getAnnotation(MaxDuration.class);
+        testMethodPercentile = description.getAnnotation(Percentile.class);
+        testMethodName = description.getMethodName();
+    }
+
+    public void skip() {
+        skipped = true;
+    }
+
+    @Override
+    public void stepTimed(StepTiming stepTiming) {
+        if (skipped || stepTiming.step() != Step.WHEN) {
+            return;
+        }
+        if (testMethodMaxDuration != null) {
+            check(stepTiming, testMethodMaxDuration, format("the test method '%s'", testMethodName));
+            return;
+        }
+        MaxDuration whenMaxDuration = stepTiming.stepClass().getAnnotation(MaxDuration.class);
+        if (whenMaxDuration != null) {
+            check(stepTiming, whenMaxDuration, format("the class '%s'", stepTiming.stepClass().getSimpleName()));
+        }
+    }
+
+    private void check(StepTiming stepTiming, MaxDuration maxDuration, String source) {
+        String budget = format("%dms set by @MaxDuration on %s", maxDuration.millis(), source);
+        writeOnlyTestItems.addToCapturedInputsAndOutputs("Max Duration Budget", format("%s, with a budget of %s", stepTiming, budget));
+        if (stepTiming.durationNanos() > MILLISECONDS.toNanos(maxDuration.millis())) {
+            throw new AssertionError(format("%s, which is over the budget of %s", stepTiming, budget));
+        }
+    }
+
+    public void whenExecuted(Object testResult) {
+        if (skipped || testMethodPercentile == null) {
+            return;
+        }
+        if (!(testResult instanceof RepeatedResults)) {
+            throw new IllegalStateException(format("@Percentile on the test method '%s' can only be checked against a %s but the test result was '%s'",
+                    testMethodName, RepeatedWhen.class.getSimpleName(), testResult));
+        }
+        check(((RepeatedResults<?>) testResult).latencies(), testMethodPercentile);
+    }
+
+    /**
+     * A {@link Percentile} is only checked against the {@link RepeatedWhen} of a plain 'when', so it is rejected
+     * rather than silently ignored when the scenario uses a step that it cannot be checked against.
+     */
+    public void percentileCannotBeCheckedAgainst(String stepMethod, Object when) {
+        if (skipped || testMethodPercentile == null) {
+            return;
+        }
+        throw new IllegalStateException(format("@Percentile on the test method '%s' can only be checked against a %s passed to 'when' but '%s' was passed to '%s'",
+                testMethodName, RepeatedWhen.class.getSimpleName(), when, stepMethod));
+    }
+
+    private void check(LatencyDistribution latencies, Percentile percentile) {
+        long percentileNanos = latencies.percentileNanos(percentile.value());
+        String measured = format(Locale.ROOT, "p%s of %d executions took %.3fms",
+                percentileLabel(percentile.value()), latencies.count(), percentileNanos / NANOS_PER_MILLI);
+        String budget = format("%dms set by @Percentile on the test method '%s'", percentile.millis(), testMethodName);
+        writeOnlyTestItems.addToCapturedInputsAndOutputs("Percentile Budget", format("%s, with a budget of %s", measured, budget));
+        if (percentileNanos > MILLISECONDS.toNanos(percentile.millis())) {
+            throw new AssertionError(format("%s, which is over the budget of %s", measured, budget));
+        }
+    }
+
+    private static String percentileLabel(double percentile) {
+        if (percentile == Math.rint(percentile)) {
+            return String.valueOf((long) percentile);
+        }
+        return String.valueOf(percentile);
+    }
+}
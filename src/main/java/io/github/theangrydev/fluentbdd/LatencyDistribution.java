@@ -0,0 +1,97 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.fluentbdd;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+import static java.lang.String.format;
+
+/**
+ * How long each execution of a {@link RepeatedWhen} took.
+ */
+public final class LatencyDistribution {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    private static final double MAX_PERCENTILE = 100.0;
+
+    private final long[] sortedLatencyNanos;
+
+    LatencyDistribution(long[] latencyNanos) {
+        this.sortedLatencyNanos = latencyNanos.clone();
+        Arrays.sort(sortedLatencyNanos);
+    }
+
+    /**
+     * @return How many executions there were
+     */
+    public int count() {
+        return sortedLatencyNanos.length;
+    }
+
+    /**
+     * @return The fastest execution, in nanoseconds
+     */
+    public long minNanos() {
+        return sortedLatencyNanos[0];
+    }
+
+    /**
+     * @return The slowest execution, in nanoseconds
+     */
+    public long maxNanos() {
+        return sortedLatencyNanos[sortedLatencyNanos.length - 1];
+    }
+
+    /**
+     * @return The mean execution time, in nanoseconds
+     */
+    public double meanNanos() {
+        double totalNanos = 0;
+        for (long latencyNanos : sortedLatencyNanos) {
+            totalNanos += latencyNanos;
+        }
+        return totalNanos / sortedLatencyNanos.length;
+    }
+
+    /**
+     * The nearest-rank percentile, e.g. a percentile of 99 is the execution time that 99% of the executions were at
+     * least as fast as.
+     *
+     * @param percentile A percentile greater than 0 and at most 100
+     * @return The execution time at the percentile, in nanoseconds
+     */
+    public long percentileNanos(double percentile) {
+        if (percentile <= 0 || percentile > MAX_PERCENTILE) {
+            throw new IllegalStateException(format("The percentile must be greater than 0 and at most 100 but was %s", percentile));
+        }
+        int rank = (int) Math.ceil(percentile / MAX_PERCENTILE * sortedLatencyNanos.length);
+        return sortedLatencyNanos[rank - 1];
+    }
+
+    @Override
+    public String toString() {
+        return format(Locale.ROOT, "%d executions: min %.3fms, mean %.3fms, p50 %.3fms, p90 %.3fms, p99 %.3fms, max %.3fms",
+                count(), millis(minNanos()), meanNanos() / NANOS_PER_MILLI, millis(percentileNanos(50)),
+                millis(percentileNanos(90)), millis(percentileNanos(99)), millis(maxNanos()));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / NANOS_PER_MILLI;
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.fluentbdd;
+
+import java.util.function.Supplier;
+
+/**
+ * This class represents a system under test whose result is expensive to capture, e.g. because it involves downloading
+ * and parsing a response body. The system is invoked straight away, but capturing the result is deferred until the
+ * first {@link ThenAssertion} needs it, so scenarios that never look at the result do not pay for capturing it.
+ *
+ * A {@link ThenVerification} is about the interactions with the dependencies rather than the result, so it does not
+ * capture the result either: it is given the {@link TestResult} if an earlier {@link ThenAssertion} captured it and
+ * {@code null} otherwise. Verifications that follow a {@link LazyWhen} should check the interactions through their own
+ * infrastructure rather than through the {@link TestResult}.
+ *
+ * It should act as a builder for use in {@link FluentBdd}, just like a {@link When}.
+ *
+ * @see <a href="https://en.wikipedia.org/wiki/Builder_pattern#Java_example">The Builder Pattern</a>
+ *
+ * @param <TestResult> The type of result the system produces
+ */
+@FunctionalInterface
+public interface LazyWhen<TestResult> {
+
+    /**
+     * Invoke the system under test.
+     *
+     * @return A {@link Supplier} that will capture the {@link TestResult}. It is called at most once
+     */
+    Supplier<TestResult> execute();
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.fluentbdd;
+
+/**
+ * A {@link ThenAssertion} whose {@link Then} is produced at most once per scenario. Every {@link FluentBdd#then} and
+ * {@link FluentBdd#and} that uses the same instance in the same scenario is given the same {@link Then}.
+ *
+ * This is useful when producing the {@link Then} is expensive, e.g. when it reads and parses a response body, and the
+ * scenario makes several assertions on it. The {@link Then} should not be changed by the assertions made on it.
+ *
+ * @param <Then> The fluent assertions type
+ * @param <TestResult> The test result that the {@link Then} operates on
+ */
+@FunctionalInterface
+public interface MemoisedThenAssertion<Then, TestResult> extends ThenAssertion<Then, TestResult> {
+
+    /**
+     * @param thenAssertion The {@link ThenAssertion} that produces the {@link Then}
+     * @param <Then> The fluent assertions type
+     * @param <TestResult> The test result that the {@link Then} operates on
+     * @return A {@link MemoisedThenAssertion} that produces the {@link Then} using the given {@link ThenAssertion}
+     */
+    static <Then, TestResult> MemoisedThenAssertion<Then, TestResult> memoised(ThenAssertion<Then, TestResult> thenAssertion) {
+        return thenAssertion::then;
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.fluentbdd;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * The {@link MemoisedThenAssertion} instances are compared by identity so that user defined equals and hashCode methods
+ * are not involved.
+ */
+class MemoisedThens<TestResult> {
+
+    private final Map<MemoisedThenAssertion<?, TestResult>, Object> thens = new IdentityHashMap<>();
+
+    @SuppressWarnings("unchecked") // The then was produced by the same instance, so it has the right type
+    public <Then> Then then(MemoisedThenAssertion<Then, TestResult> thenAssertion, TestResult testResult) {
+        if (thens.containsKey(thenAssertion)) {
+            return (Then) thens.get(thenAssertion);
+        }
+        Then then = thenAssertion.then(testResult);
+        thens.put(thenAssertion, then);
+        return then;
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.fluentbdd;
+
+import java.lang.reflect.Field;
+
+import static java.lang.reflect.Modifier.isFinal;
+import static java.util.Arrays.stream;
+
+/**
+ * A class appears to be mutable if it, or any of its superclasses, declares a field that is not final.
+ *
+ * The same few classes are checked over and over again, so the answer is computed once per class and then shared.
+ * Fields captured by a lambda or method reference are declared as final fields of the synthetic class, so they are
+ * treated in the same way as any other field.
+ */
+final class MutabilityClassifier {
+
+    private static final ClassValue<Boolean> APPEARS_TO_BE_MUTABLE = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> aClass) {
+            return declaresNonFinalField(aClass) || superclassAppearsToBeMutable(aClass);
+        }
+    };
+
+    private MutabilityClassifier() {
+        // Use the static methods
+    }
+
+    static boolean appearsToBeMutable(Class<?> aClass) {
+        return APPEARS_TO_BE_MUTABLE.get(aClass);
+    }
+
+    private static boolean superclassAppearsToBeMutable(Class<?> aClass) {
+        Class<?> superclass = aClass.getSuperclass();
+        return superclass != null && appearsToBeMutable(superclass);
+    }
+
+    private static boolean declaresNonFinalField(Class<?> aClass) {
+        return stream(aClass.getDeclaredFields())
+                .mapToInt(Field::getModifiers)
+                .anyMatch(modifiers -> !isFinal(modifiers));
+    }
+}
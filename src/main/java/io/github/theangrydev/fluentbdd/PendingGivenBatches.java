@@ -0,0 +1,64 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.fluentbdd;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class PendingGivenBatches {
+
+    private final List<PendingGivenBatch<?>> pendingGivenBatches = new ArrayList<>();
+
+    private static class PendingGivenBatch<Priming> {
+        final GivenBatch<Priming> givenBatch;
+        final List<Priming> primings = new ArrayList<>();
+
+        PendingGivenBatch(GivenBatch<Priming> givenBatch) {
+            this.givenBatch = givenBatch;
+        }
+
+        void prime() {
+            givenBatch.prime(primings);
+        }
+    }
+
+    public <Priming> void add(BatchableGiven<Priming> batchableGiven) {
+        pendingGivenBatch(batchableGiven.batch()).primings.add(batchableGiven.priming());
+    }
+
+    public void prime(StepTimings stepTimings) {
+        for (PendingGivenBatch<?> pendingGivenBatch : pendingGivenBatches) {
+            stepTimings.stepStarted(Step.GIVEN, pendingGivenBatch.givenBatch);
+            pendingGivenBatch.prime();
+            stepTimings.stepFinished();
+        }
+        pendingGivenBatches.clear();
+    }
+
+    @SuppressWarnings("unchecked") // The primings are always added for the same batch, so they are always of the same type
+    private <Priming> PendingGivenBatch<Priming> pendingGivenBatch(GivenBatch<Priming> givenBatch) {
+        for (PendingGivenBatch<?> pendingGivenBatch : pendingGivenBatches) {
+            if (pendingGivenBatch.givenBatch == givenBatch) {
+                return (PendingGivenBatch<Priming>) pendingGivenBatch;
+            }
+        }
+        PendingGivenBatch<Priming> pendingGivenBatch = new PendingGivenBatch<>(givenBatch);
+        pendingGivenBatches.add(pendingGivenBatch);
+        return pendingGivenBatch;
+    }
+}
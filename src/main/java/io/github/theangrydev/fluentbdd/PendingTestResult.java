@@ -0,0 +1,77 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.fluentbdd;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+class PendingTestResult<TestResult> {
+
+    private final AsyncWhen<TestResult> when;
+    private final CompletableFuture<TestResult> testResult;
+    private final Duration timeout;
+    private final long startNanos;
+
+    // Written when the test result completes, which happens before the test result is seen by await
+    private long completedNanos;
+
+    PendingTestResult(AsyncWhen<TestResult> when, CompletableFuture<TestResult> testResult, Duration timeout, long startNanos) {
+        this.when = when;
+        this.testResult = testResult.whenComplete((result, failure) -> completedNanos = System.nanoTime());
+        this.timeout = timeout;
+        this.startNanos = startNanos;
+    }
+
+    AsyncWhen<TestResult> when() {
+        return when;
+    }
+
+    long startNanos() {
+        return startNanos;
+    }
+
+    long durationNanos() {
+        return completedNanos - startNanos;
+    }
+
+    @SuppressWarnings("PMD.PreserveStackTrace") // The cause is rethrown directly when it is unchecked
+    TestResult await() {
+        try {
+            return testResult.get(timeout.toNanos(), NANOSECONDS);
+        } catch (TimeoutException timeoutException) {
+            throw new IllegalStateException(format("'%s' did not produce a test result within %s", when, timeout), timeoutException);
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(format("Interrupted while waiting for '%s' to produce a test result", when), interruptedException);
+        } catch (ExecutionException executionException) {
+            throw failure(executionException.getCause());
+        }
+    }
+
+    private RuntimeException failure(Throwable cause) {
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        return new IllegalStateException(format("'%s' failed to produce a test result", when), cause);
+    }
+}
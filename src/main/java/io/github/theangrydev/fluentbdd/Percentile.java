@@ -0,0 +1,47 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.fluentbdd;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * A latency budget for a percentile of the executions of a {@link RepeatedWhen}. If the {@link LatencyDistribution} of
+ * the executions is slower than this at the percentile, the scenario will fail.
+ *
+ * This can only be put on a test method, because the {@link When} that is repeated is wrapped by {@link RepeatedWhen}.
+ * It can be combined with {@link MaxDuration}, which then applies to all the executions together.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Percentile {
+
+    /**
+     * @return The percentile to check, greater than 0 and at most 100, e.g. 99 for the 99th percentile
+     */
+    double value();
+
+    /**
+     * @return The maximum number of milliseconds that an execution of the {@link When} at the percentile may take
+     */
+    long millis();
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.fluentbdd;
+
+import java.util.List;
+
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * The outcome of a {@link RepeatedWhen}: the {@link TestResult} of every execution, in the order the executions were
+ * started, along with how long they took.
+ *
+ * @param <TestResult> The type of test result produced by the {@link When} that was repeated
+ */
+public final class RepeatedResults<TestResult> {
+
+    private final List<TestResult> results;
+    private final LatencyDistribution latencies;
+
+    RepeatedResults(List<TestResult> results, LatencyDistribution latencies) {
+        this.results = unmodifiableList(results);
+        this.latencies = latencies;
+    }
+
+    /**
+     * @return The {@link TestResult} of every execution
+     */
+    public List<TestResult> results() {
+        return results;
+    }
+
+    /**
+     * @return The distribution of how long each execution took
+     */
+    public LatencyDistribution latencies() {
+        return latencies;
+    }
+
+    @Override
+    public String toString() {
+        return latencies.toString();
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.fluentbdd;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static java.lang.String.format;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+
+/**
+ * A {@link When} that executes another {@link When} many times, possibly from several threads at once, so that the
+ * same scenario can be used to measure the throughput and latency of the system under test.
+ * <p>
+ * The {@link TestResult} of each execution is collected into a {@link RepeatedResults}, along with the
+ * {@link LatencyDistribution} of the executions, which the thens can then make assertions about.
+ * <p>
+ * The {@link When} being repeated is shared by all the executions, so it must be safe to execute concurrently when the
+ * concurrency is more than one.
+ *
+ * @param <TestResult> The type of test result produced by the {@link When} being repeated
+ */
+public final class RepeatedWhen<TestResult> implements When<RepeatedResults<TestResult>> {
+
+    private final When<TestResult> when;
+
+    private int times = 1;
+    private int concurrency = 1;
+
+    private RepeatedWhen(When<TestResult> when) {
+        this.when = when;
+    }
+
+    /**
+     * @param when The {@link When} to repeat
+     * @param <TestResult> The type of test result produced by the {@link When}
+     * @return A {@link RepeatedWhen} that will execute the {@link When} once, until told otherwise
+     */
+    public static <TestResult> RepeatedWhen<TestResult> repeated(When<TestResult> when) {
+        return new RepeatedWhen<>(when);
+    }
+
+    /**
+     * @param times How many times to execute the {@link When}
+     * @return This instance, for chaining
+     */
+    public RepeatedWhen<TestResult> times(int times) {
+        if (times < 1) {
+            throw new IllegalStateException(format("The 'when' must be repeated at least once but was asked to be repeated %d times", times));
+        }
+        this.times = times;
+        return this;
+    }
+
+    /**
+     * @param concurrency How many threads should execute the {@link When} at the same time
+     * @return This instance, for chaining
+     */
+    public RepeatedWhen<TestResult> concurrency(int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalStateException(format("The concurrency must be at least one but was %d", concurrency));
+        }
+        this.concurrency = concurrency;
+        return this;
+    }
+
+    @Override
+    public RepeatedResults<TestResult> execute() {
+        ExecutorService executorService = newFixedThreadPool(Math.min(times, concurrency));
+        try {
+            return collect(submitExecutions(executorService));
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private List<Future<TimedResult<TestResult>>> submitExecutions(ExecutorService executorService) {
+        Callable<TimedResult<TestResult>> timedExecution = this::timedExecution;
+        List<Future<TimedResult<TestResult>>> executions = new ArrayList<>(times);
+        for (int execution = 0; execution < times; execution++) {
+            executions.add(executorService.submit(timedExecution));
+        }
+        return executions;
+    }
+
+    private TimedResult<TestResult> timedExecution() {
+        long startNanos = System.nanoTime();
+        TestResult testResult = when.execute();
+        return new TimedResult<>(testResult, System.nanoTime() - startNanos);
+    }
+
+    private RepeatedResults<TestResult> collect(List<Future<TimedResult<TestResult>>> executions) {
+        List<TestResult> results = new ArrayList<>(times);
+        long[] latencyNanos = new long[times];
+        for (int execution = 0; execution < times; execution++) {
+            TimedResult<TestResult> timedResult = await(executions.get(execution));
+            results.add(timedResult.testResult);
+            latencyNanos[execution] = timedResult.durationNanos;
+        }
+        return new RepeatedResults<>(results, new LatencyDistribution(latencyNanos));
+    }
+
+    @SuppressWarnings("PMD.PreserveStackTrace") // The cause is rethrown directly when it is unchecked
+    private TimedResult<TestResult> await(Future<TimedResult<TestResult>> execution) {
+        try {
+            return execution.get();
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(format("Interrupted while waiting for '%s' to be repeated", when), interruptedException);
+        } catch (ExecutionException executionException) {
+            throw failure(executionException.getCause());
+        }
+    }
+
+    private RuntimeException failure(Throwable cause) {
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new IllegalStateException(format("'%s' failed while being repeated", when), cause);
+    }
+
+    @Override
+    public String toString() {
+        return format("%s repeated %d times with a concurrency of %d", when, times, concurrency);
+    }
+
+    private static final class TimedResult<TestResult> {
+        private final TestResult testResult;
+        private final long durationNanos;
+
+        private TimedResult(TestResult testResult, long durationNanos) {
+            this.testResult = testResult;
+            this.durationNanos = durationNanos;
+        }
+    }
+}
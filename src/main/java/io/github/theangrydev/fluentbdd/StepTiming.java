@@ -0,0 +1,67 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.fluentbdd;
+
+import java.util.Locale;
+
+import static java.lang.String.format;
+
+/**
+ * How long a single {@link Given#prime()}, {@link When#execute()}, {@link ThenVerification#verify(Object)} or
+ * {@link ThenAssertion#then(Object)} took, as measured by {@link System#nanoTime()}.
+ */
+public final class StepTiming {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final Step step;
+    private final Class<?> stepClass;
+    private final long durationNanos;
+
+    StepTiming(Step step, Class<?> stepClass, long durationNanos) {
+        this.step = step;
+        this.stepClass = stepClass;
+        this.durationNanos = durationNanos;
+    }
+
+    /**
+     * @return The kind of step that was timed
+     */
+    public Step step() {
+        return step;
+    }
+
+    /**
+     * @return The class of the {@link Given}, {@link When}, {@link ThenVerification} or {@link ThenAssertion} that was timed
+     */
+    public Class<?> stepClass() {
+        return stepClass;
+    }
+
+    /**
+     * @return How long the step took, in nanoseconds
+     */
+    public long durationNanos() {
+        return durationNanos;
+    }
+
+    @Override
+    public String toString() {
+        return format(Locale.ROOT, "%s %s took %.3fms", step, stepClass.getSimpleName(), durationNanos / NANOS_PER_MILLI);
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.fluentbdd;
+
+/**
+ * Is told how long each step took as soon as the step has finished.
+ *
+ * For example, this could be used to fail a test if a step is slower than expected, by throwing an exception.
+ */
+@FunctionalInterface
+public interface StepTimingListener {
+
+    /**
+     * @param stepTiming How long the step took
+     */
+    void stepTimed(StepTiming stepTiming);
+}
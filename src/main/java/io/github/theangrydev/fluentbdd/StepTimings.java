@@ -0,0 +1,107 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.fluentbdd;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.lang.System.lineSeparator;
+
+@SuppressWarnings("PMD.TooManyMethods") // Each method is a lifecycle event
+class StepTimings {
+
+    private static final String UNNAMED_SCENARIO = "Unnamed scenario";
+
+    private final List<StepTiming> stepTimings = new ArrayList<>();
+    private final List<StepTimingListener> stepTimingListeners = new ArrayList<>();
+    private final FluentBddListeners fluentBddListeners;
+
+    private String scenarioName = UNNAMED_SCENARIO;
+    private long scenarioStartNanos = System.nanoTime();
+
+    private Step stepInProgress;
+    private Class<?> stepClassInProgress;
+    private long stepStartNanos;
+
+    StepTimings(FluentBddListeners fluentBddListeners) {
+        this.fluentBddListeners = fluentBddListeners;
+    }
+
+    public void addListener(StepTimingListener stepTimingListener) {
+        stepTimingListeners.add(stepTimingListener);
+    }
+
+    public void scenarioStarted(String scenarioName) {
+        this.scenarioName = scenarioName;
+        scenarioStartNanos = System.nanoTime();
+        fluentBddListeners.scenarioStarted(scenarioName);
+    }
+
+    public void stepStarted(Step step, Object stepInstance) {
+        stepResumed(step, stepInstance, asyncStepStarted(step, stepInstance));
+    }
+
+    public long asyncStepStarted(Step step, Object stepInstance) {
+        fluentBddListeners.stepStarted(scenarioName, step, stepInstance.getClass());
+        return System.nanoTime();
+    }
+
+    public void stepResumed(Step step, Object stepInstance, long startNanos) {
+        stepInProgress = step;
+        stepClassInProgress = stepInstance.getClass();
+        stepStartNanos = startNanos;
+    }
+
+    public void stepFinished() {
+        stepFinished(System.nanoTime() - stepStartNanos);
+    }
+
+    public void stepFinished(long durationNanos) {
+        StepTiming stepTiming = new StepTiming(stepInProgress, stepClassInProgress, durationNanos);
+        stepInProgress = null;
+        stepTimings.add(stepTiming);
+        fluentBddListeners.stepFinished(scenarioName, stepTiming.step(), stepTiming.stepClass(), durationNanos, Outcome.SUCCEEDED);
+        for (StepTimingListener stepTimingListener : stepTimingListeners) {
+            stepTimingListener.stepTimed(stepTiming);
+        }
+    }
+
+    public void stepFailed() {
+        if (stepInProgress != null) {
+            fluentBddListeners.stepFinished(scenarioName, stepInProgress, stepClassInProgress, System.nanoTime() - stepStartNanos, Outcome.FAILED);
+            stepInProgress = null;
+        }
+    }
+
+    public void scenarioFinished(Outcome outcome) {
+        fluentBddListeners.scenarioFinished(scenarioName, System.nanoTime() - scenarioStartNanos, outcome);
+    }
+
+    public boolean isEmpty() {
+        return stepTimings.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder();
+        for (StepTiming stepTiming : stepTimings) {
+            stringBuilder.append(stepTiming).append(lineSeparator());
+        }
+        return stringBuilder.toString();
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.fluentbdd;
+
+/**
+ * An expensive system under test (e.g. a web server) that can be started once and then used by many scenarios,
+ * depending on its {@link SystemUnderTestScope}.
+ * <p>
+ * Instances are obtained through {@link FluentBdd#systemUnderTest(SystemUnderTestScope, Class, java.util.function.Supplier)}.
+ * An instance is only ever used by one scenario at a time, so it is safe to share even when scenarios run in parallel.
+ */
+public interface SystemUnderTest {
+
+    /**
+     * Start the system. This is called once, before the system is used by its first scenario.
+     */
+    void start();
+
+    /**
+     * Stop the system. This is called once, when the system will not be used by any more scenarios.
+     */
+    void stop();
+
+    /**
+     * Called once, just after the system has started, e.g. to make some requests so that the first scenario does not
+     * pay for the system warming up.
+     */
+    default void warmUp() {
+        // Nothing to warm up by default
+    }
+
+    /**
+     * Called after the system has started, and before it is reused by another scenario. An unhealthy system will be
+     * stopped and replaced by a new one.
+     *
+     * @return True if the system is fit to be used by a scenario
+     */
+    default boolean isHealthy() {
+        return true;
+    }
+
+    /**
+     * Called when a scenario has finished with the system and before it is used by another scenario, so that any state
+     * that the scenario left behind can be cleared.
+     */
+    default void reset() {
+        // Nothing to reset by default
+    }
+}
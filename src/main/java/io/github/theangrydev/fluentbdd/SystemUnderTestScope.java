@@ -0,0 +1,41 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.fluentbdd;
+
+/**
+ * How widely a {@link SystemUnderTest} is shared between scenarios.
+ */
+public enum SystemUnderTestScope {
+
+    /**
+     * Started once and reused by every scenario in the JVM. Stopped when the JVM exits.
+     */
+    PER_JVM,
+
+    /**
+     * Started once and reused by every scenario in the same test class. Stopped when the last scenario in the class has
+     * finished, by the class rule that {@link FluentBdd} declares, or by {@link FluentBdd#perClassSystemsUnderTest()} for
+     * test classes that do not extend {@link FluentBdd}.
+     */
+    PER_CLASS,
+
+    /**
+     * Started for a single scenario and stopped when it has finished.
+     */
+    PER_TEST
+}
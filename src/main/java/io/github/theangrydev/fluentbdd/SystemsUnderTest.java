@@ -0,0 +1,260 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.fluentbdd;
+
+import org.junit.rules.TestRule;
+import org.junit.runners.model.MultipleFailureException;
+import org.junit.runners.model.Statement;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import static java.lang.String.format;
+
+/**
+ * Shared systems are kept in static idle queues between scenarios. A scenario takes a system out of the queue while it
+ * uses it, so scenarios that run at the same time get different instances and a queue grows to at most the number of
+ * scenarios that use it at once.
+ * <p>
+ * The {@link SystemUnderTestScope#PER_CLASS} systems of a test class are stopped by the class rule made by
+ * {@link #perClassScope()} when the class has finished, so they can only be used by test classes that have that rule.
+ */
+class SystemsUnderTest {
+
+    private static final ConcurrentMap<Key, Queue<SystemUnderTest>> IDLE_SYSTEMS = new ConcurrentHashMap<>();
+    private static final Queue<SystemUnderTest> SHARED_SYSTEMS = new ConcurrentLinkedQueue<>();
+    private static final Set<Class<?>> TEST_CLASSES_IN_PER_CLASS_SCOPE = ConcurrentHashMap.newKeySet();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(SystemsUnderTest::stopSharedSystems, "fluent-bdd-systems-under-test-shutdown"));
+    }
+
+    private final List<AcquiredSystem> acquiredSystems = new ArrayList<>();
+
+    private Class<?> testClass;
+
+    public void scenarioStarted(Class<?> testClass) {
+        this.testClass = testClass;
+    }
+
+    public <T extends SystemUnderTest> T acquire(SystemUnderTestScope scope, Class<T> type, Supplier<T> factory) {
+        Key key = key(scope, type);
+        SystemUnderTest systemUnderTest = scope == SystemUnderTestScope.PER_TEST ? null : takeHealthyIdleSystem(key);
+        if (systemUnderTest == null) {
+            systemUnderTest = start(scope, factory.get());
+        }
+        acquiredSystems.add(new AcquiredSystem(key, systemUnderTest));
+        return type.cast(systemUnderTest);
+    }
+
+    /**
+     * Every acquired system is released, even if releasing one of them fails. The first failure is rethrown with the
+     * others suppressed.
+     */
+    public void scenarioFinished() {
+        RuntimeException failure = null;
+        try {
+            for (AcquiredSystem acquiredSystem : acquiredSystems) {
+                try {
+                    release(acquiredSystem.key, acquiredSystem.systemUnderTest);
+                } catch (RuntimeException releaseFailure) {
+                    failure = withSuppressed(failure, releaseFailure);
+                }
+            }
+        } finally {
+            acquiredSystems.clear();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * @return A class rule that stops the {@link SystemUnderTestScope#PER_CLASS} systems of the test class when all of
+     * its scenarios have finished
+     */
+    static TestRule perClassScope() {
+        return (base, description) -> new Statement() {
+            @Override
+            @SuppressWarnings("PMD.AvoidCatchingThrowable") // Every failure is reported, along with any failure to stop the systems
+            public void evaluate() throws Throwable {
+                Class<?> testClass = description.getTestClass();
+                if (!TEST_CLASSES_IN_PER_CLASS_SCOPE.add(testClass)) {
+                    // The rule has been applied more than once to the same class, so the outermost one stops the systems
+                    base.evaluate();
+                    return;
+                }
+                List<Throwable> failures = new ArrayList<>();
+                try {
+                    base.evaluate();
+                } catch (Throwable failure) {
+                    failures.add(failure);
+                } finally {
+                    TEST_CLASSES_IN_PER_CLASS_SCOPE.remove(testClass);
+                    stopPerClassSystems(testClass, failures);
+                }
+                MultipleFailureException.assertEmpty(failures);
+            }
+        };
+    }
+
+    private static void stopPerClassSystems(Class<?> testClass, List<Throwable> failures) {
+        for (Key key : IDLE_SYSTEMS.keySet()) {
+            if (key.scope != SystemUnderTestScope.PER_CLASS || !testClass.equals(key.testClass)) {
+                continue;
+            }
+            Queue<SystemUnderTest> idleSystems = IDLE_SYSTEMS.remove(key);
+            if (idleSystems == null) {
+                continue;
+            }
+            for (SystemUnderTest systemUnderTest : idleSystems) {
+                try {
+                    stop(systemUnderTest);
+                } catch (RuntimeException stopFailure) {
+                    failures.add(stopFailure);
+                }
+            }
+        }
+    }
+
+    private static RuntimeException withSuppressed(RuntimeException failure, RuntimeException anotherFailure) {
+        if (failure == null) {
+            return anotherFailure;
+        }
+        failure.addSuppressed(anotherFailure);
+        return failure;
+    }
+
+    private Key key(SystemUnderTestScope scope, Class<?> type) {
+        if (scope == SystemUnderTestScope.PER_CLASS && testClass == null) {
+            throw new IllegalStateException(format("A %s system under test can only be used while a scenario is running", scope));
+        }
+        if (scope == SystemUnderTestScope.PER_CLASS && !TEST_CLASSES_IN_PER_CLASS_SCOPE.contains(testClass)) {
+            throw new IllegalStateException(format("A %s system under test can only be used by a test class that extends %s or has a @ClassRule made by %s.perClassSystemsUnderTest(), so that it can be stopped when the class has finished, but '%s' does not",
+                    scope, FluentBdd.class.getSimpleName(), FluentBdd.class.getSimpleName(), testClass.getName()));
+        }
+        return new Key(scope, type, scope == SystemUnderTestScope.PER_CLASS ? testClass : null);
+    }
+
+    private SystemUnderTest takeHealthyIdleSystem(Key key) {
+        Queue<SystemUnderTest> idleSystems = IDLE_SYSTEMS.computeIfAbsent(key, anyKey -> new ConcurrentLinkedQueue<>());
+        SystemUnderTest idleSystem = idleSystems.poll();
+        while (idleSystem != null && !idleSystem.isHealthy()) {
+            stop(idleSystem);
+            idleSystem = idleSystems.poll();
+        }
+        return idleSystem;
+    }
+
+    /**
+     * A system that fails to start or warm up is stopped, since it may already hold resources that were acquired when it
+     * was made or while it was starting.
+     */
+    private SystemUnderTest start(SystemUnderTestScope scope, SystemUnderTest systemUnderTest) {
+        try {
+            systemUnderTest.start();
+            systemUnderTest.warmUp();
+        } catch (RuntimeException startFailure) {
+            try {
+                systemUnderTest.stop();
+            } catch (RuntimeException stopFailure) {
+                startFailure.addSuppressed(stopFailure);
+            }
+            throw startFailure;
+        }
+        if (!systemUnderTest.isHealthy()) {
+            systemUnderTest.stop();
+            throw new IllegalStateException(format("'%s' was not healthy after it was started", systemUnderTest));
+        }
+        if (scope != SystemUnderTestScope.PER_TEST) {
+            SHARED_SYSTEMS.add(systemUnderTest);
+        }
+        return systemUnderTest;
+    }
+
+    private void release(Key key, SystemUnderTest systemUnderTest) {
+        if (key.scope == SystemUnderTestScope.PER_TEST) {
+            systemUnderTest.stop();
+            return;
+        }
+        try {
+            systemUnderTest.reset();
+        } catch (RuntimeException resetFailure) {
+            stop(systemUnderTest);
+            throw resetFailure;
+        }
+        IDLE_SYSTEMS.computeIfAbsent(key, anyKey -> new ConcurrentLinkedQueue<>()).add(systemUnderTest);
+    }
+
+    private static void stop(SystemUnderTest systemUnderTest) {
+        SHARED_SYSTEMS.remove(systemUnderTest);
+        systemUnderTest.stop();
+    }
+
+    private static void stopSharedSystems() {
+        for (SystemUnderTest systemUnderTest : SHARED_SYSTEMS) {
+            systemUnderTest.stop();
+        }
+    }
+
+    private static final class AcquiredSystem {
+        private final Key key;
+        private final SystemUnderTest systemUnderTest;
+
+        private AcquiredSystem(Key key, SystemUnderTest systemUnderTest) {
+            this.key = key;
+            this.systemUnderTest = systemUnderTest;
+        }
+    }
+
+    private static final class Key {
+        private final SystemUnderTestScope scope;
+        private final Class<?> type;
+        private final Class<?> testClass;
+
+        private Key(SystemUnderTestScope scope, Class<?> type, Class<?> testClass) {
+            this.scope = scope;
+            this.type = type;
+            this.testClass = testClass;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (other == null || getClass() != other.getClass()) {
+                return false;
+            }
+            Key key = (Key) other;
+            return scope == key.scope && type.equals(key.type) && Objects.equals(testClass, key.testClass);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(scope, type, testClass);
+        }
+    }
+}
@@ -17,13 +17,12 @@
  */
 package io.github.theangrydev.fluentbdd;
 
-import java.lang.reflect.Field;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.IdentityHashMap;
+import java.util.Set;
 
+import static io.github.theangrydev.fluentbdd.MutabilityClassifier.appearsToBeMutable;
 import static java.lang.String.format;
-import static java.lang.reflect.Modifier.isFinal;
-import static java.util.Arrays.stream;
+import static java.util.Collections.newSetFromMap;
 
 @SuppressWarnings("PMD.TooManyMethods") // Splitting this up further would be too artificial
 class Verification<TestResult> {
@@ -36,9 +35,10 @@ class Verification<TestResult> {
 
     private Stage stage = Stage.GIVEN;
 
-    private final List<Given> usedGivens = new ArrayList<>();
-    private final List<ThenVerification<TestResult>> usedThenVerifications = new ArrayList<>();
-    private final List<ThenAssertion<?, TestResult>> usedThenAssertions = new ArrayList<>();
+    // Instances are compared by identity so that user defined equals and hashCode methods are not involved
+    private final Set<Given> usedGivens = newSetFromMap(new IdentityHashMap<>());
+    private final Set<ThenVerification<TestResult>> usedThenVerifications = newSetFromMap(new IdentityHashMap<>());
+    private final Set<ThenAssertion<?, TestResult>> usedThenAssertions = newSetFromMap(new IdentityHashMap<>());
 
     public void checkGivenIsAllowed(Given given) {
         if (stage != Stage.GIVEN) {
@@ -49,7 +49,7 @@ class Verification<TestResult> {
 
     public void recordGiven(Given given) {
         stage = Stage.GIVEN;
-        usedGivens.add(given);
+        recordMutableInstance(given, usedGivens);
     }
 
     public void checkWhenIsAllowed() {
@@ -59,10 +59,18 @@ class Verification<TestResult> {
     }
 
     public void recordWhen(When<TestResult> when, TestResult testResult) {
+        checkTestResultIsPresent(when, testResult);
+        stage = Stage.WHEN;
+    }
+
+    public void recordDeferredWhen() {
+        stage = Stage.WHEN;
+    }
+
+    public void checkTestResultIsPresent(Object when, Object testResult) {
         if (testResult == null) {
             throw new IllegalStateException(format("'%s' test result was null", when));
         }
-        stage = Stage.WHEN;
     }
 
     public void checkThenVerificationIsAllowed(ThenVerification<TestResult> thenVerification) {
@@ -71,13 +79,13 @@ class Verification<TestResult> {
     }
 
     public void recordThenVerification(ThenVerification<TestResult> thenVerification) {
-        usedThenVerifications.add(thenVerification);
+        recordMutableInstance(thenVerification, usedThenVerifications);
     }
 
     public <Then> void checkThenAssertionIsAllowed(ThenAssertion<Then, TestResult> thenAssertion) {
         checkThenIsAllowed();
         checkMutableInstanceHasNotAlreadyBeenUsed(thenAssertion, usedThenAssertions);
-        usedThenAssertions.add(thenAssertion);
+        recordMutableInstance(thenAssertion, usedThenAssertions);
     }
 
     public void checkThenHasBeenUsed() {
@@ -93,14 +101,14 @@ class Verification<TestResult> {
         stage = Stage.THEN;
     }
 
-    private boolean appearsToBeMutable(Class<?> aClass) {
-        return stream(aClass.getDeclaredFields())
-                .mapToInt(Field::getModifiers)
-                .anyMatch(modifiers -> !isFinal(modifiers));
+    private <T> void recordMutableInstance(T instance, Set<T> usedInstances) {
+        if (appearsToBeMutable(instance.getClass())) {
+            usedInstances.add(instance);
+        }
     }
 
-    private <T> void checkMutableInstanceHasNotAlreadyBeenUsed(T instance, List<T> usedInstances) {
-        if (appearsToBeMutable(instance.getClass()) && usedInstances.contains(instance)) {
+    private <T> void checkMutableInstanceHasNotAlreadyBeenUsed(T instance, Set<T> usedInstances) {
+        if (usedInstances.contains(instance)) {
             throw new IllegalStateException(format("This '%s' instance has been used once already. To avoid accidentally sharing state, use a new instance.", instance.getClass().getSimpleName()));
         }
     }
@@ -48,6 +48,16 @@ public interface WithFluentBdd<TestResult> extends FluentBddCommands<TestResult>
         return yatspecFluent().testState();
     }
 
+    @Override
+    default void addToGivens(String key, Object instance) {
+        yatspecFluent().addToGivens(key, instance);
+    }
+
+    @Override
+    default void addToCapturedInputsAndOutputs(String key, Object instance) {
+        yatspecFluent().addToCapturedInputsAndOutputs(key, instance);
+    }
+
     @Override
     default void given(Given given) {
         yatspecFluent().given(given);
@@ -63,6 +73,16 @@ public interface WithFluentBdd<TestResult> extends FluentBddCommands<TestResult>
         yatspecFluent().when(when);
     }
 
+    @Override
+    default <T extends AsyncWhen<TestResult>> void whenAsync(T when) {
+        yatspecFluent().whenAsync(when);
+    }
+
+    @Override
+    default <T extends LazyWhen<TestResult>> void whenLazy(T when) {
+        yatspecFluent().whenLazy(when);
+    }
+
     @Override
     default void given(When<TestResult> when) {
         yatspecFluent().given(when);
@@ -25,6 +25,10 @@ package io.github.theangrydev.fluentbdd;
  * This is to encourage you not to have a big bag of global state. Instead, the
  * interesting givens and captured inputs and outputs should just be a way to
  * highlight important information to the person reading the acceptance test.
+ *
+ * The {@link FluentBdd} implementation can be written to from any thread (e.g. from a stub server or an async
+ * {@link When}); items added from other threads are written to the test state on the test thread, in the order they
+ * were added.
  */
 public interface WriteOnlyTestItems {
 
@@ -21,6 +21,7 @@ import acceptance.example.givens.GivenTheWeatherService;
 import acceptance.example.test.AcceptanceTest;
 import acceptance.example.test.TestResult;
 import acceptance.example.thens.ThenTheAccessLogLinesContaining;
+import acceptance.example.thens.ThenTheJsonResponse;
 import acceptance.example.thens.ThenTheWeatherServiceWasCalled;
 import acceptance.example.thens.ThenTheResponse;
 import acceptance.example.thens.ThenTheResponseHeaders;
@@ -30,15 +31,18 @@ import io.github.theangrydev.fluentbdd.ThenAssertion;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import static io.github.theangrydev.fluentbdd.MemoisedThenAssertion.memoised;
+
 @RunWith(SpecRunner.class)
 public class ExampleTest extends AcceptanceTest<TestResult> {
 
     private final GivenTheWeatherService theWeatherService = new GivenTheWeatherService(this, testInfrastructure);
     private final ThenTheAccessLogLinesContaining theAccessLogLines = new ThenTheAccessLogLinesContaining();
-    private final ThenAssertion<ThenTheResponse, TestResult> theResponse = ThenTheResponse::new;
+    private final ThenAssertion<ThenTheResponse, TestResult> theResponse = memoised(ThenTheResponse::new);
     private final ThenAssertion<ThenTheResponseHeaders, TestResult> theResponseHeaders = ThenTheResponseHeaders::new;
     private final WhenTheWeatherIsRequested theUser = new WhenTheWeatherIsRequested(testInfrastructure, "TheUser");
-    private final ThenTheWeatherServiceWasCalled theWeatherServiceWasCalled = new ThenTheWeatherServiceWasCalled();
+    private final ThenTheWeatherServiceWasCalled theWeatherServiceWasCalled = new ThenTheWeatherServiceWasCalled(testInfrastructure);
+    private final ThenTheJsonResponse theJsonResponse = new ThenTheJsonResponse();
 
     @Test
     public void assertionTest() {
@@ -48,6 +52,31 @@ public class ExampleTest extends AcceptanceTest<TestResult> {
         and(theResponseHeaders).contains("Content-Length").contains("Date");
     }
 
+    @Test
+    public void memoisedAssertionTest() {
+        given(theWeatherService.willReturn().weatherDescription("light rain").forCity("London"));
+        when(theUser.requestsTheWeather().forCity("London"));
+        then(theResponse).contains("light rain");
+        and(theResponse).contains("London");
+    }
+
+    @Test
+    public void asyncAssertionTest() {
+        given(theWeatherService.willReturn().weatherDescription("light rain").forCity("London"));
+        whenAsync(theUser.requestsTheWeather().forCity("London").withoutWaiting());
+        then(theResponse).isEqualTo("There is light rain in London");
+    }
+
+    @Test
+    public void jsonAssertionTest() {
+        given(theWeatherService.willReturn().weatherDescription("light rain").forCity("London"));
+        when(theUser.requestsTheWeather().forCity("London").asJson());
+        then(theJsonResponse.withValuesAt("/city", "/description"))
+                .hasValueAt("/city", "London")
+                .hasValueAt("/description", "light rain");
+        and(theJsonResponse.withValuesAt("/city")).hasValueAt("/city", "London");
+    }
+
     @Test
     public void assertionBuilderTest() {
         given(theWeatherService.willReturn().weatherDescription("light rain").forCity("London"));
@@ -61,4 +90,11 @@ public class ExampleTest extends AcceptanceTest<TestResult> {
         when(theUser.requestsTheWeather().forCity("London"));
         then(theWeatherServiceWasCalled.withCity("London"));
     }
+
+    @Test
+    public void lazyVerificationTest() {
+        given(theWeatherService.willReturn().weatherDescription("light rain").forCity("London"));
+        whenLazy(theUser.requestsTheWeather().forCity("London").withoutCapturingTheResponse());
+        then(theWeatherServiceWasCalled.withCity("London"));
+    }
 }
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package acceptance;
+
+import acceptance.example.givens.GivenTheWeatherService;
+import acceptance.example.test.AcceptanceTest;
+import acceptance.example.test.TestResult;
+import acceptance.example.whens.WhenTheWeatherIsRequested;
+import com.googlecode.yatspec.junit.SpecRunner;
+import io.github.theangrydev.fluentbdd.LatencyDistribution;
+import io.github.theangrydev.fluentbdd.Percentile;
+import io.github.theangrydev.fluentbdd.RepeatedResults;
+import io.github.theangrydev.fluentbdd.ThenAssertion;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+
+import static io.github.theangrydev.fluentbdd.RepeatedWhen.repeated;
+import static java.util.stream.Collectors.toList;
+
+@RunWith(SpecRunner.class)
+public class WeatherLoadTest extends AcceptanceTest<RepeatedResults<TestResult>> {
+
+    private final GivenTheWeatherService theWeatherService = new GivenTheWeatherService(this, testInfrastructure);
+    private final WhenTheWeatherIsRequested theUser = new WhenTheWeatherIsRequested(testInfrastructure, "TheUser");
+    private final ThenAssertion<List<TestResult>, RepeatedResults<TestResult>> theResults = RepeatedResults::results;
+    private final ThenAssertion<LatencyDistribution, RepeatedResults<TestResult>> theLatencies = RepeatedResults::latencies;
+
+    @Test
+    @Percentile(value = 99, millis = 5_000)
+    public void theWeatherIsQuickToRequest() {
+        given(theWeatherService.willReturn().weatherDescription("light rain").forCity("London"));
+        when(repeated(theUser.requestsTheWeather().forCity("London")).times(20).concurrency(4));
+        assertThat(then(theResults).stream().map(testResult -> testResult.response.code()).collect(toList())).containsOnly(200);
+        assertThat(then(theLatencies).count()).isEqualTo(20);
+    }
+}
@@ -17,13 +17,15 @@
  */
 package acceptance.example.givens;
 
+import acceptance.example.test.InteractionToListenFor;
 import acceptance.example.test.TestInfrastructure;
-import io.github.theangrydev.fluentbdd.Given;
+import io.github.theangrydev.fluentbdd.BatchableGiven;
+import io.github.theangrydev.fluentbdd.GivenBatch;
 import io.github.theangrydev.fluentbdd.WriteOnlyTestItems;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 
-public class GivenTheWeatherService implements Given {
+public class GivenTheWeatherService implements BatchableGiven<InteractionToListenFor> {
 
     private final WriteOnlyTestItems writeOnlyTestItems;
     private final TestInfrastructure testInfrastructure;
@@ -51,9 +53,14 @@ public class GivenTheWeatherService implements Given {
     }
 
     @Override
-    public void prime() {
+    public GivenBatch<InteractionToListenFor> batch() {
+        return testInfrastructure;
+    }
+
+    @Override
+    public InteractionToListenFor priming() {
         writeOnlyTestItems.addToGivens("City", cityName);
-        testInfrastructure.givenThat("OpenWeatherMap", get(urlPathMatching("/data/2.5/weather"))
+        return new InteractionToListenFor("OpenWeatherMap", get(urlPathEqualTo("/data/2.5/weather"))
                 .withQueryParam("q", equalTo(cityName))
                 .willReturn(aResponse()
                         .withStatus(200)
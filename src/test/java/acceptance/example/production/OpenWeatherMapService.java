@@ -21,34 +21,35 @@ import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
+import okhttp3.ResponseBody;
 import org.json.JSONObject;
+import org.json.JSONTokener;
 
 import java.io.IOException;
 
 public class OpenWeatherMapService {
 
-    private final OkHttpClient okHttpClient = new OkHttpClient();
+    private final OkHttpClient okHttpClient;
     private final HttpUrl weatherServiceUrl;
 
     public OpenWeatherMapService(String weatherServiceUrl) {
+        this(weatherServiceUrl, new OkHttpClient());
+    }
+
+    public OpenWeatherMapService(String weatherServiceUrl, OkHttpClient okHttpClient) {
         this.weatherServiceUrl = HttpUrl.parse(weatherServiceUrl);
+        this.okHttpClient = okHttpClient;
     }
 
     public String fetchWeatherFor(String city) {
         HttpUrl url = weatherServiceUrl.newBuilder().addPathSegment("data").addPathSegment("2.5").addPathSegment("weather").setQueryParameter("q", city).build();
         Response response = tryToFetchWeather(url);
-        return parseDescription(responseBody(response));
+        return parseDescription(response);
     }
 
-    private String parseDescription(String responseBody) {
-        return new JSONObject(responseBody).getJSONArray("weather").getJSONObject(0).getString("description");
-    }
-
-    private String responseBody(Response response) {
-        try {
-            return response.body().string();
-        } catch (IOException e) {
-            throw new RuntimeException("Could not fetch body from response: " + response);
+    private String parseDescription(Response response) {
+        try (ResponseBody responseBody = response.body()) {
+            return new JSONObject(new JSONTokener(responseBody.charStream())).getJSONArray("weather").getJSONObject(0).getString("description");
         }
     }
 
@@ -17,8 +17,10 @@
  */
 package acceptance.example.production;
 
+import okhttp3.OkHttpClient;
 import org.eclipse.jetty.server.Handler;
 import org.eclipse.jetty.server.NCSARequestLog;
+import org.eclipse.jetty.server.RequestLog;
 import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.server.handler.HandlerList;
 import org.eclipse.jetty.server.handler.RequestLogHandler;
@@ -28,31 +30,38 @@ import org.eclipse.jetty.servlet.ServletHolder;
 public class WeatherApplication {
     private final Server server;
 
-    public WeatherApplication(int port, String weatherServiceUrl) {
+    public WeatherApplication(int port, String weatherServiceUrl, String accessLogFile) {
+        this(port, weatherServiceUrl, fileRequestLog(accessLogFile), new OkHttpClient());
+    }
+
+    public WeatherApplication(int port, String weatherServiceUrl, RequestLog requestLog, OkHttpClient okHttpClient) {
         server = new Server(port);
-        server.setHandler(handlers(weatherServiceUrl));
+        server.setHandler(handlers(weatherServiceUrl, requestLog, okHttpClient));
     }
 
-    private HandlerList handlers(String weatherServiceUrl) {
+    private HandlerList handlers(String weatherServiceUrl, RequestLog requestLog, OkHttpClient okHttpClient) {
         HandlerList handlers = new HandlerList();
-        handlers.setHandlers(new Handler[] {requestLogHandler(), servletHandler(weatherServiceUrl)});
+        handlers.setHandlers(new Handler[] {requestLogHandler(requestLog), servletHandler(weatherServiceUrl, okHttpClient)});
         return handlers;
     }
 
-    private ServletHandler servletHandler(String weatherServiceUrl) {
+    private ServletHandler servletHandler(String weatherServiceUrl, OkHttpClient okHttpClient) {
         ServletHandler servletHandler = new ServletHandler();
-        servletHandler.addServletWithMapping(new ServletHolder(new WeatherServlet(new OpenWeatherMapService(weatherServiceUrl))),"/weather");
+        servletHandler.addServletWithMapping(new ServletHolder(new WeatherServlet(new OpenWeatherMapService(weatherServiceUrl, okHttpClient))),"/weather");
         return servletHandler;
     }
 
-    private RequestLogHandler requestLogHandler() {
-        NCSARequestLog requestLog = new NCSARequestLog("access.log");
+    private static NCSARequestLog fileRequestLog(String accessLogFile) {
+        NCSARequestLog requestLog = new NCSARequestLog(accessLogFile);
         requestLog.setAppend(true);
         requestLog.setExtended(false);
         requestLog.setLogTimeZone("GMT");
         requestLog.setLogLatency(true);
         requestLog.setRetainDays(90);
+        return requestLog;
+    }
 
+    private RequestLogHandler requestLogHandler(RequestLog requestLog) {
         RequestLogHandler requestLogHandler = new RequestLogHandler();
         requestLogHandler.setRequestLog(requestLog);
         return requestLogHandler;
@@ -74,6 +83,10 @@ public class WeatherApplication {
         }
     }
 
+    public boolean isRunning() {
+        return server.isRunning();
+    }
+
     public String baseUrl() {
         return server.getURI().toString();
     }
@@ -17,6 +17,8 @@
  */
 package acceptance.example.production;
 
+import org.json.JSONObject;
+
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
@@ -37,6 +39,16 @@ public class WeatherServlet extends HttpServlet {
     protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
         String city = req.getParameter("city");
         String weatherDescription = openWeatherMapService.fetchWeatherFor(city);
-        resp.getWriter().write(format("There is %s in %s", weatherDescription, city));
+        if (acceptsJson(req)) {
+            resp.setContentType("application/json");
+            resp.getWriter().write(new JSONObject().put("city", city).put("description", weatherDescription).toString());
+        } else {
+            resp.getWriter().write(format("There is %s in %s", weatherDescription, city));
+        }
+    }
+
+    private boolean acceptsJson(HttpServletRequest req) {
+        String accept = req.getHeader("Accept");
+        return accept != null && accept.contains("application/json");
     }
 }
@@ -20,21 +20,22 @@ package acceptance.example.test;
 import com.googlecode.yatspec.junit.SpecResultListener;
 import com.googlecode.yatspec.junit.WithCustomResultListeners;
 import com.googlecode.yatspec.plugin.sequencediagram.ByNamingConventionMessageProducer;
-import com.googlecode.yatspec.plugin.sequencediagram.SequenceDiagramGenerator;
 import com.googlecode.yatspec.plugin.sequencediagram.SequenceDiagramMessage;
 import com.googlecode.yatspec.plugin.sequencediagram.SvgWrapper;
 import com.googlecode.yatspec.rendering.html.DontHighlightRenderer;
 import com.googlecode.yatspec.rendering.html.HtmlResultRenderer;
 import io.github.theangrydev.fluentbdd.FluentBdd;
+import io.github.theangrydev.fluentbdd.SystemUnderTestScope;
 import io.github.theangrydev.fluentbdd.WithFluentBdd;
 import org.assertj.core.api.WithAssertions;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
+import org.junit.rules.TestName;
 
-import java.io.IOException;
-import java.util.Collections;
+import java.util.Arrays;
 
+import static acceptance.example.test.SequenceDiagramRenderer.sharedSequenceDiagramRenderer;
 import static com.googlecode.yatspec.plugin.sequencediagram.SequenceDiagramGenerator.getHeaderContentForModalWindows;
 
 public abstract class AcceptanceTest<Response> implements WithAssertions, WithCustomResultListeners, WithFluentBdd<Response> {
@@ -44,32 +45,50 @@ public abstract class AcceptanceTest<Response> implements WithAssertions, WithCu
     @Rule
     public final FluentBdd<Response> fluentBdd = new FluentBdd<>();
 
+    @Rule
+    public final TestName testName = new TestName();
+
     @Override
     public FluentBdd<Response> yatspecFluent() {
         return fluentBdd;
     }
 
+    /**
+     * Replayed responses do not make a round trip to the {@link WeatherSystem}, so their latency budgets are not checked.
+     */
     @Before
     public void setUp() {
-        testInfrastructure.setUp();
+        String scenario = getClass().getName() + "." + testName.getMethodName();
+        if (testInfrastructure.interactionMode() == InteractionMode.REPLAY) {
+            fluentBdd.withoutLatencyBudgets();
+            testInfrastructure.setUpReplay(scenario);
+        } else {
+            testInfrastructure.setUp(scenario, fluentBdd.systemUnderTest(SystemUnderTestScope.PER_JVM, WeatherSystem.class, WeatherSystem::new));
+        }
     }
 
     @After
-    public void tearDown() throws IOException {
-        addSequenceDiagram();
+    public void tearDown() {
         testInfrastructure.tearDown();
+        addSequenceDiagram();
     }
 
     private void addSequenceDiagram() {
         Iterable<SequenceDiagramMessage> messages = new ByNamingConventionMessageProducer().messages(testState().capturedInputAndOutputs);
-        SequenceDiagramGenerator sequenceDiagramGenerator = new SequenceDiagramGenerator();
-        addToCapturedInputsAndOutputs("Sequence Diagram", sequenceDiagramGenerator.generateSequenceDiagram(messages));
+        addToCapturedInputsAndOutputs("Sequence Diagram", sharedSequenceDiagramRenderer().render(getClass(), messages));
     }
 
     @Override
     public Iterable<SpecResultListener> getResultListeners() throws Exception {
-        return Collections.singleton(new HtmlResultRenderer()
-                .withCustomHeaderContent(getHeaderContentForModalWindows())
-                .withCustomRenderer(SvgWrapper.class, new DontHighlightRenderer<>()));
+        return Arrays.asList(
+                new HtmlResultRenderer()
+                        .withCustomHeaderContent(getHeaderContentForModalWindows())
+                        .withCustomRenderer(SvgWrapper.class, new DontHighlightRenderer<>())
+                        .withCustomRenderer(SequenceDiagramRenderer.SequenceDiagram.class, new DontHighlightRenderer<>()),
+                (yatspecOutputDir, result) -> reportWritten(result.getTestClass()));
+    }
+
+    private static void reportWritten(Class<?> testClass) {
+        sharedSequenceDiagramRenderer().testClassReported(testClass);
     }
 }
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package acceptance.example.test;
+
+import com.github.tomakehurst.wiremock.http.HttpHeader;
+import com.github.tomakehurst.wiremock.http.HttpHeaders;
+import io.github.theangrydev.fluentbdd.CapturedContent;
+import okhttp3.Headers;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.Buffer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Formats the requests and responses that are captured as plain HTTP messages, so that only their content is kept
+ * and not the connections, buffers and streams that the live objects refer to.
+ * <p>
+ * The {@code Date} header is left out, so that the same response sent at different times is formatted the same way.
+ * <p>
+ * Only the start of a response body is formatted, up to the size above which {@link CapturedContent} would spill it
+ * anyway, so a large response is never copied in full just to be captured.
+ */
+public final class HttpMessages {
+
+    private static final String DATE = "Date";
+    private static final String NEW_LINE = "\n";
+
+    private HttpMessages() {
+        // Use the static methods
+    }
+
+    public static String httpMessage(Request request) {
+        StringBuilder message = new StringBuilder();
+        message.append(request.method()).append(' ').append(request.url()).append(NEW_LINE);
+        appendHeaders(message, request.headers());
+        RequestBody body = request.body();
+        if (body != null) {
+            Buffer buffer = new Buffer();
+            try {
+                body.writeTo(buffer);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            message.append(NEW_LINE).append(buffer.readUtf8());
+        }
+        return message.toString();
+    }
+
+    /**
+     * The body is peeked at, so it can still be read by the thens. A body that is too big to be captured in full is
+     * truncated, and the message says so.
+     *
+     * @param response The response to format
+     * @return The response as a HTTP message
+     */
+    public static String httpMessage(Response response) {
+        return httpMessage(response, peekBody(response));
+    }
+
+    /**
+     * @param response The response to format
+     * @param peekedBody The body, as returned by {@link #peekBody(Response)}
+     * @return The response as a HTTP message
+     */
+    public static String httpMessage(Response response, byte[] peekedBody) {
+        StringBuilder message = new StringBuilder();
+        message.append(response.protocol()).append(' ').append(response.code()).append(' ').append(response.message()).append(NEW_LINE);
+        appendHeaders(message, response.headers());
+        message.append(NEW_LINE);
+        if (isTruncated(peekedBody)) {
+            int maxBodyBytes = maxBodyBytes();
+            message.append(new String(peekedBody, 0, utf8PrefixLength(peekedBody, maxBodyBytes), UTF_8))
+                    .append(NEW_LINE).append(format("... the body was truncated after the first %d bytes", maxBodyBytes));
+        } else {
+            message.append(new String(peekedBody, UTF_8));
+        }
+        return message.toString();
+    }
+
+    /**
+     * Peeks at no more than one byte past the size that is captured, so that a large body is never copied in full and
+     * it can still be told apart from a body that fits exactly.
+     *
+     * @param response The response to peek at
+     * @return The start of the body, which {@link #isTruncated(byte[])} if the body was too big to be captured
+     */
+    public static byte[] peekBody(Response response) {
+        try {
+            return response.peekBody(maxBodyBytes() + 1).bytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @param peekedBody The body, as returned by {@link #peekBody(Response)}
+     * @return Whether only the start of the body was peeked at
+     */
+    public static boolean isTruncated(byte[] peekedBody) {
+        return peekedBody.length > maxBodyBytes();
+    }
+
+    public static int maxBodyBytes() {
+        return (int) Math.min(CapturedContent.maxItemBytes(), Integer.MAX_VALUE - 1);
+    }
+
+    /**
+     * The prefix is cut at the start of a character, so that no character is split in two.
+     */
+    private static int utf8PrefixLength(byte[] utf8, int maxLength) {
+        int prefixLength = maxLength;
+        while (prefixLength > 0 && (utf8[prefixLength] & 0xC0) == 0x80) {
+            prefixLength--;
+        }
+        return prefixLength;
+    }
+
+    public static String httpMessage(com.github.tomakehurst.wiremock.http.Request request) {
+        StringBuilder message = new StringBuilder();
+        message.append(request.getMethod().getName()).append(' ').append(request.getAbsoluteUrl()).append(NEW_LINE);
+        appendHeaders(message, request.getHeaders());
+        return message.append(NEW_LINE).append(request.getBodyAsString()).toString();
+    }
+
+    public static String httpMessage(com.github.tomakehurst.wiremock.http.Response response) {
+        StringBuilder message = new StringBuilder();
+        message.append(response.getStatus());
+        if (response.getStatusMessage() != null) {
+            message.append(' ').append(response.getStatusMessage());
+        }
+        message.append(NEW_LINE);
+        appendHeaders(message, response.getHeaders());
+        return message.append(NEW_LINE).append(response.getBodyAsString()).toString();
+    }
+
+    private static void appendHeaders(StringBuilder message, Headers headers) {
+        for (int header = 0; header < headers.size(); header++) {
+            if (!DATE.equalsIgnoreCase(headers.name(header))) {
+                message.append(headers.name(header)).append(": ").append(headers.value(header)).append(NEW_LINE);
+            }
+        }
+    }
+
+    private static void appendHeaders(StringBuilder message, HttpHeaders headers) {
+        if (headers == null) {
+            return;
+        }
+        for (HttpHeader header : headers.all()) {
+            if (!DATE.equalsIgnoreCase(header.key())) {
+                for (String value : header.values()) {
+                    message.append(header.key()).append(": ").append(value).append(NEW_LINE);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package acceptance.example.test;
+
+import org.eclipse.jetty.server.AbstractNCSARequestLog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static java.lang.String.format;
+
+/**
+ * A Jetty request log that keeps the most recent NCSA format lines in memory instead of writing them to a file.
+ * <p>
+ * The lines are kept in a fixed size ring buffer, so the memory used is bounded no matter how many requests are logged.
+ * Appending a line is lock free, so the Jetty request threads never wait for each other or for a reader.
+ * Each scenario takes a {@link #mark()} when it starts and only sees the lines logged after it.
+ * <p>
+ * The lines are formatted with the same settings as the file based log of the
+ * {@link acceptance.example.production.WeatherApplication}, so they are the same as the lines it writes to its file.
+ */
+public final class InMemoryRequestLog extends AbstractNCSARequestLog {
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private final AtomicReferenceArray<Entry> entries;
+    private final AtomicLong nextSequence = new AtomicLong();
+
+    public InMemoryRequestLog() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public InMemoryRequestLog(int capacity) {
+        super();
+        entries = new AtomicReferenceArray<>(capacity);
+        setExtended(false);
+        setLogTimeZone("GMT");
+        setLogLatency(true);
+    }
+
+    @Override
+    protected boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public void write(String requestEntry) {
+        long sequence = nextSequence.getAndIncrement();
+        entries.set(slot(sequence), new Entry(sequence, requestEntry));
+    }
+
+    /**
+     * @return A mark that can be passed to {@link #linesSince(long)} to see only the lines logged from now on
+     */
+    public long mark() {
+        return nextSequence.get();
+    }
+
+    /**
+     * Lines that are still being written when this is called are left out.
+     *
+     * @param mark A mark from {@link #mark()}
+     * @return The lines logged since the mark was taken, in the order they were logged
+     */
+    public List<String> linesSince(long mark) {
+        long end = nextSequence.get();
+        if (end - mark > entries.length()) {
+            throw new IllegalStateException(format("%d lines were logged since the mark, which is more than the %d lines that are kept", end - mark, entries.length()));
+        }
+        List<String> lines = new ArrayList<>((int) (end - mark));
+        for (long sequence = mark; sequence < end; sequence++) {
+            Entry entry = entries.get(slot(sequence));
+            if (entry != null && entry.sequence == sequence) {
+                lines.add(entry.line);
+            }
+        }
+        return lines;
+    }
+
+    private int slot(long sequence) {
+        return (int) (sequence % entries.length());
+    }
+
+    private static final class Entry {
+        private final long sequence;
+        private final String line;
+
+        private Entry(long sequence, String line) {
+            this.sequence = sequence;
+            this.line = line;
+        }
+    }
+}
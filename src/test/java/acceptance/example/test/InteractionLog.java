@@ -0,0 +1,203 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package acceptance.example.test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.lang.String.format;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * A compact binary log of the {@link RecordedScenario}s, kept in the file named by the {@code interactions.file}
+ * system property ({@code target/interactions.log} by default).
+ * <p>
+ * Recording appends one record per scenario, so recording a few test classes does not lose what was recorded for the
+ * others. When a scenario is recorded more than once, the last recording wins. Delete the file to start again.
+ * <p>
+ * Replaying maps the whole file into memory and indexes it by scenario the first time a scenario is replayed. A
+ * scenario is only decoded when it is replayed.
+ * <p>
+ * The shared log is closed when the JVM shuts down. Logs that are only needed for a while should be closed once they
+ * are finished with.
+ */
+public final class InteractionLog implements Closeable {
+
+    private static final InteractionLog SHARED = new InteractionLog(Paths.get(System.getProperty("interactions.file", "target/interactions.log")));
+
+    private final Path file;
+
+    private FileChannel recording;
+    private Thread stopRecordingOnShutdown;
+    private MappedByteBuffer mapped;
+    private Map<String, Integer> recordOffsetsByScenario;
+
+    InteractionLog(Path file) {
+        this.file = file;
+    }
+
+    public static InteractionLog sharedInteractionLog() {
+        return SHARED;
+    }
+
+    public synchronized void record(String scenario, RecordedScenario recordedScenario) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream output = new DataOutputStream(bytes);
+            byte[] scenarioName = scenario.getBytes(StandardCharsets.UTF_8);
+            output.writeInt(scenarioName.length);
+            output.write(scenarioName);
+            output.writeInt(0);
+            int recordStart = output.size();
+            recordedScenario.writeTo(output);
+            ByteBuffer record = ByteBuffer.wrap(bytes.toByteArray());
+            record.putInt(recordStart - Integer.BYTES, record.limit() - recordStart);
+            FileChannel channel = recording();
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(format("Could not record scenario '%s' to '%s'", scenario, file), e);
+        }
+    }
+
+    public synchronized RecordedScenario replay(String scenario) {
+        Integer recordOffset = recordOffsetsByScenario().get(scenario);
+        if (recordOffset == null) {
+            throw new IllegalStateException(format("Scenario '%s' has not been recorded in '%s'. Run it with -Dinteractions.mode=record first.", scenario, file));
+        }
+        ByteBuffer record = mapped.duplicate();
+        record.position(recordOffset);
+        return RecordedScenario.readFrom(record);
+    }
+
+    private FileChannel recording() throws IOException {
+        if (recording == null) {
+            Path directory = file.toAbsolutePath().getParent();
+            if (directory != null) {
+                Files.createDirectories(directory);
+            }
+            recording = FileChannel.open(file, CREATE, WRITE, APPEND);
+            stopRecordingOnShutdown = new Thread(this::stopRecording, "interaction-log-shutdown");
+            Runtime.getRuntime().addShutdownHook(stopRecordingOnShutdown);
+        }
+        return recording;
+    }
+
+    /**
+     * Stops recording and forgets what was mapped for replaying. The mapped file is released once the buffer has been
+     * garbage collected, since Java 8 has no way of unmapping it straight away.
+     */
+    @Override
+    public synchronized void close() {
+        if (stopRecordingOnShutdown != null) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(stopRecordingOnShutdown);
+            } catch (IllegalStateException alreadyShuttingDown) {
+                // the hook is already running, so it will close the recording itself
+            }
+            stopRecordingOnShutdown = null;
+            stopRecording();
+        }
+        mapped = null;
+        recordOffsetsByScenario = null;
+    }
+
+    private synchronized void stopRecording() {
+        if (recording == null) {
+            return;
+        }
+        try {
+            recording.close();
+        } catch (IOException e) {
+            System.err.println(format("Could not close the recorded interactions in '%s': %s", file, e));
+        }
+        recording = null;
+    }
+
+    private Map<String, Integer> recordOffsetsByScenario() {
+        if (recordOffsetsByScenario == null) {
+            mapped = map();
+            recordOffsetsByScenario = index(mapped.duplicate());
+        }
+        return recordOffsetsByScenario;
+    }
+
+    private MappedByteBuffer map() {
+        if (!Files.exists(file)) {
+            throw new IllegalStateException(format("There are no recorded interactions in '%s'. Run the scenarios with -Dinteractions.mode=record first.", file));
+        }
+        try (FileChannel channel = FileChannel.open(file, READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException(format("Could not read the recorded interactions in '%s'", file), e);
+        }
+    }
+
+    /**
+     * A record that was cut short, for example because the recording JVM was killed while it was being appended, is
+     * ignored along with anything after it, since the records after it cannot be told apart from its remains.
+     */
+    private Map<String, Integer> index(ByteBuffer log) {
+        Map<String, Integer> recordOffsetsByScenario = new HashMap<>();
+        while (log.hasRemaining()) {
+            int recordStart = log.position();
+            int scenarioNameLength = readLength(log);
+            if (scenarioNameLength < 0 || scenarioNameLength > log.remaining()) {
+                ignoreTruncatedRecord(recordStart);
+                break;
+            }
+            byte[] scenarioName = new byte[scenarioNameLength];
+            log.get(scenarioName);
+            int recordLength = readLength(log);
+            if (recordLength < 0 || recordLength > log.remaining()) {
+                ignoreTruncatedRecord(recordStart);
+                break;
+            }
+            recordOffsetsByScenario.put(new String(scenarioName, StandardCharsets.UTF_8), log.position());
+            log.position(log.position() + recordLength);
+        }
+        return recordOffsetsByScenario;
+    }
+
+    private static int readLength(ByteBuffer log) {
+        if (log.remaining() < Integer.BYTES) {
+            return -1;
+        }
+        return log.getInt();
+    }
+
+    private void ignoreTruncatedRecord(int recordStart) {
+        System.err.println(format("Ignoring the truncated record at byte %d of '%s' and anything after it. Delete the file and record the scenarios again.", recordStart, file));
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package acceptance.example.test;
+
+import acceptance.example.test.RecordedScenario.Exchange;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.assertj.core.api.WithAssertions;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static acceptance.example.test.HttpMessages.peekBody;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+
+public class InteractionLogTest implements WithAssertions {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final Request request = new Request.Builder().url("http://localhost:1234/weather?city=London").build();
+    private final List<InteractionLog> interactionLogs = new ArrayList<>();
+
+    @After
+    public void closeInteractionLogs() {
+        interactionLogs.forEach(InteractionLog::close);
+    }
+
+    @Test
+    public void replaysTheLastRecordingOfAScenario() throws IOException {
+        Path file = temporaryFolder.getRoot().toPath().resolve("interactions.log");
+        InteractionLog recording = interactionLog(file);
+        recording.record("scenario", recordedScenario("first recording"));
+        recording.record("other scenario", recordedScenario("other"));
+        recording.record("scenario", recordedScenario("second recording"));
+
+        RecordedScenario replayed = interactionLog(file).replay("scenario");
+
+        assertThat(replayed.accessLogLines()).containsExactly("GET /weather?city=London 200");
+        Exchange exchange = replayed.exchanges().get(0);
+        assertThat(exchange.request()).isEqualTo("GET /weather?city=London");
+        Response response = exchange.responseTo(request);
+        assertThat(response.code()).isEqualTo(200);
+        assertThat(response.header("Content-Type")).isEqualTo("text/plain");
+        assertThat(response.body().string()).isEqualTo("second recording");
+    }
+
+    @Test
+    public void scenariosThatWereNotRecordedCannotBeReplayed() {
+        Path file = temporaryFolder.getRoot().toPath().resolve("interactions.log");
+        interactionLog(file).record("scenario", recordedScenario("recorded"));
+
+        assertThatThrownBy(() -> interactionLog(file).replay("missing"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageStartingWith("Scenario 'missing' has not been recorded");
+    }
+
+    @Test
+    public void aTruncatedLastRecordIsIgnored() throws IOException {
+        Path file = temporaryFolder.getRoot().toPath().resolve("interactions.log");
+        InteractionLog recording = interactionLog(file);
+        recording.record("scenario", recordedScenario("recorded"));
+        recording.record("truncated scenario", recordedScenario("truncated"));
+        byte[] log = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(log, log.length - 3));
+
+        InteractionLog replaying = interactionLog(file);
+
+        assertThat(replaying.replay("scenario").exchanges().get(0).responseTo(request).body().string()).isEqualTo("recorded");
+        assertThatThrownBy(() -> replaying.replay("truncated scenario"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageStartingWith("Scenario 'truncated scenario' has not been recorded");
+    }
+
+    @Test
+    public void aClosedLogCanBeUsedAgain() throws IOException {
+        Path file = temporaryFolder.getRoot().toPath().resolve("interactions.log");
+        InteractionLog interactionLog = interactionLog(file);
+        interactionLog.record("scenario", recordedScenario("first recording"));
+        assertThat(interactionLog.replay("scenario").exchanges().get(0).responseTo(request).body().string()).isEqualTo("first recording");
+        interactionLog.close();
+
+        interactionLog.record("scenario", recordedScenario("second recording"));
+
+        assertThat(interactionLog.replay("scenario").exchanges().get(0).responseTo(request).body().string()).isEqualTo("second recording");
+    }
+
+    @Test
+    public void responsesTooBigToBeCapturedCannotBeRecorded() {
+        Response response = response(new String(new char[HttpMessages.maxBodyBytes() + 1]).replace('\0', 'x'));
+
+        assertThatThrownBy(() -> Exchange.recordedFrom(response, peekBody(response), emptyList()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageStartingWith("The response to 'GET /weather?city=London' is bigger than");
+    }
+
+    private InteractionLog interactionLog(Path file) {
+        InteractionLog interactionLog = new InteractionLog(file);
+        interactionLogs.add(interactionLog);
+        return interactionLog;
+    }
+
+    private RecordedScenario recordedScenario(String body) {
+        Response response = response(body);
+        return new RecordedScenario(singletonList(Exchange.recordedFrom(response, peekBody(response), emptyList())), singletonList("GET /weather?city=London 200"));
+    }
+
+    private Response response(String body) {
+        return new Response.Builder()
+                .request(request)
+                .protocol(Protocol.HTTP_1_1)
+                .code(200)
+                .message("OK")
+                .header("Content-Type", "text/plain")
+                .body(ResponseBody.create(MediaType.parse("text/plain"), body))
+                .build();
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package acceptance.example.test;
+
+import static java.lang.String.format;
+
+/**
+ * How the interactions of the scenarios are run, set with the {@code interactions.mode} system property:
+ * <ul>
+ * <li>{@code live} (the default): every scenario runs against a real {@link WeatherSystem}</li>
+ * <li>{@code record}: like live, but the interactions of every scenario are also written to the {@link InteractionLog}</li>
+ * <li>{@code replay}: no {@link WeatherSystem} is started and the interactions are served from the {@link InteractionLog}</li>
+ * </ul>
+ */
+public enum InteractionMode {
+    LIVE, RECORD, REPLAY;
+
+    private static final InteractionMode CONFIGURED = fromSystemProperty();
+
+    public static InteractionMode configuredInteractionMode() {
+        return CONFIGURED;
+    }
+
+    private static InteractionMode fromSystemProperty() {
+        String mode = System.getProperty("interactions.mode", "live");
+        for (InteractionMode interactionMode : values()) {
+            if (interactionMode.name().equalsIgnoreCase(mode)) {
+                return interactionMode;
+            }
+        }
+        throw new IllegalStateException(format("Unknown interactions.mode '%s', it should be one of live, record or replay", mode));
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package acceptance.example.test;
+
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.RequestListener;
+import com.github.tomakehurst.wiremock.http.Response;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+
+import static java.lang.String.format;
+import static java.util.Collections.emptyList;
+
+/**
+ * Matches the requests received by the stub server against the interactions that were listened for, and records the
+ * ones that matched so that they can be captured later on the test thread.
+ * <p>
+ * The requests are received on the stub server threads, so matching only reads from concurrent collections and
+ * recording is a lock free append. The interactions are indexed by method and path, so a request is only matched
+ * against the interactions that could match it, plus the ones whose URL is a regular expression.
+ */
+public class InteractionRecorder implements RequestListener {
+
+    private final ConcurrentMap<String, Queue<InteractionToListenFor>> interactionsByMethodAndPath = new ConcurrentHashMap<>();
+    private final Queue<InteractionToListenFor> unindexedInteractions = new ConcurrentLinkedQueue<>();
+    private final Queue<RecordedInteraction> recordedInteractions = new ConcurrentLinkedQueue<>();
+
+    public void listenFor(List<InteractionToListenFor> interactionsToListenFor) {
+        for (InteractionToListenFor interactionToListenFor : interactionsToListenFor) {
+            String methodAndPath = interactionToListenFor.methodAndPath();
+            if (methodAndPath == null) {
+                unindexedInteractions.add(interactionToListenFor);
+            } else {
+                interactionsByMethodAndPath.computeIfAbsent(methodAndPath, anyMethodAndPath -> new ConcurrentLinkedQueue<>()).add(interactionToListenFor);
+            }
+        }
+    }
+
+    @Override
+    public void requestReceived(Request request, Response response) {
+        InteractionToListenFor match = null;
+        for (InteractionToListenFor interactionToListenFor : candidates(request)) {
+            match = onlyMatch(match, interactionToListenFor, request, response);
+        }
+        for (InteractionToListenFor interactionToListenFor : unindexedInteractions) {
+            match = onlyMatch(match, interactionToListenFor, request, response);
+        }
+        if (match == null) {
+            throw new IllegalStateException(format("Found an interaction that was not listened for. Request: %s%n%nResponse: %s%n", request, response));
+        }
+        // The request is only readable until the stub server has finished with it, so a copy is recorded
+        recordedInteractions.add(new RecordedInteraction(match.dependencyName, LoggedRequest.createFrom(request), response));
+    }
+
+    /**
+     * Hand over the interactions that have been recorded since the last time this was called, in the order they were
+     * recorded.
+     *
+     * @param consumer Will be given the dependency name and the request and response of each interaction
+     */
+    public void drainTo(RecordedInteractionConsumer consumer) {
+        RecordedInteraction recordedInteraction = recordedInteractions.poll();
+        while (recordedInteraction != null) {
+            consumer.accept(recordedInteraction.dependencyName, recordedInteraction.request, recordedInteraction.response);
+            recordedInteraction = recordedInteractions.poll();
+        }
+    }
+
+    private Iterable<InteractionToListenFor> candidates(Request request) {
+        Queue<InteractionToListenFor> candidates = interactionsByMethodAndPath.get(InteractionToListenFor.methodAndPath(request.getMethod(), request.getUrl()));
+        return candidates == null ? emptyList() : candidates;
+    }
+
+    private InteractionToListenFor onlyMatch(InteractionToListenFor matchSoFar, InteractionToListenFor candidate, Request request, Response response) {
+        if (!candidate.matches(request)) {
+            return matchSoFar;
+        }
+        if (matchSoFar != null) {
+            throw new IllegalStateException(format("Found an interaction that was listened for multiple times. Request: %s%n%nResponse: %s%n", request, response));
+        }
+        return candidate;
+    }
+
+    @FunctionalInterface
+    public interface RecordedInteractionConsumer {
+        void accept(String dependencyName, Request request, Response response);
+    }
+
+    private static final class RecordedInteraction {
+        private final String dependencyName;
+        private final Request request;
+        private final Response response;
+
+        private RecordedInteraction(String dependencyName, Request request, Response response) {
+            this.dependencyName = dependencyName;
+            this.request = request;
+            this.response = response;
+        }
+    }
+}
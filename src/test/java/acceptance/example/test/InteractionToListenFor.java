@@ -0,0 +1,63 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package acceptance.example.test;
+
+import com.github.tomakehurst.wiremock.client.MappingBuilder;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.matching.RequestPattern;
+
+public class InteractionToListenFor {
+    final String dependencyName;
+    final MappingBuilder mappingBuilder;
+
+    // Built once, because building it from the mapping builder is expensive and it is used for every request received
+    private final RequestPattern requestPattern;
+
+    public InteractionToListenFor(String dependencyName, MappingBuilder mappingBuilder) {
+        this.dependencyName = dependencyName;
+        this.mappingBuilder = mappingBuilder;
+        this.requestPattern = mappingBuilder.build().getRequest();
+    }
+
+    boolean matches(Request request) {
+        return requestPattern.match(request).isExactMatch();
+    }
+
+    /**
+     * @return The method and path that a request must have to match, or null if the method or path is not fixed
+     */
+    String methodAndPath() {
+        if (requestPattern.getMethod() == null || RequestMethod.ANY.equals(requestPattern.getMethod())) {
+            return null;
+        }
+        if (requestPattern.getUrlPath() != null) {
+            return methodAndPath(requestPattern.getMethod(), requestPattern.getUrlPath());
+        }
+        if (requestPattern.getUrl() != null) {
+            return methodAndPath(requestPattern.getMethod(), requestPattern.getUrl());
+        }
+        return null;
+    }
+
+    static String methodAndPath(RequestMethod method, String url) {
+        int queryStart = url.indexOf('?');
+        String path = queryStart == -1 ? url : url.substring(0, queryStart);
+        return method.getName() + " " + path;
+    }
+}
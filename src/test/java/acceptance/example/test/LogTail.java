@@ -0,0 +1,122 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package acceptance.example.test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * Follows the lines that are appended to a log file after the tail was started.
+ * <p>
+ * Only the bytes that were appended since the last read are read each time, so the cost of reading the lines depends on
+ * how many lines were written during the scenario, not on how big the log file has grown.
+ * A line is only seen once the newline at the end of it has been written.
+ * <p>
+ * The scenarios read the {@link InMemoryRequestLog} instead, but this can follow the {@code access.log} that a
+ * {@link acceptance.example.production.WeatherApplication} writes when it is made with a log file, e.g. when it is run
+ * on its own.
+ */
+public class LogTail {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final byte NEWLINE = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+
+    private final Path logFile;
+    private final List<String> lines = new ArrayList<>();
+
+    private long position;
+    private byte[] partialLine = new byte[0];
+
+    private LogTail(Path logFile, long position) {
+        this.logFile = logFile;
+        this.position = position;
+    }
+
+    /**
+     * @param logFile The log file to follow
+     * @return A tail that will only see the lines that are appended to the file from now on
+     */
+    public static LogTail tailFromTheEnd(Path logFile) {
+        try (FileChannel fileChannel = FileChannel.open(logFile, READ)) {
+            return new LogTail(logFile, fileChannel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return The complete lines that have been appended since the tail was started
+     */
+    public List<String> lines() {
+        try (FileChannel fileChannel = FileChannel.open(logFile, READ)) {
+            readNewBytes(fileChannel);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return unmodifiableList(new ArrayList<>(lines));
+    }
+
+    private void readNewBytes(FileChannel fileChannel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        int bytesRead = fileChannel.read(buffer, position);
+        while (bytesRead > 0) {
+            position += bytesRead;
+            buffer.flip();
+            splitLines(buffer);
+            buffer.clear();
+            bytesRead = fileChannel.read(buffer, position);
+        }
+    }
+
+    private void splitLines(ByteBuffer buffer) {
+        int lineStart = buffer.position();
+        for (int index = buffer.position(); index < buffer.limit(); index++) {
+            if (buffer.get(index) == NEWLINE) {
+                lines.add(line(buffer, lineStart, index));
+                lineStart = index + 1;
+            }
+        }
+        partialLine = concat(partialLine, buffer, lineStart, buffer.limit());
+    }
+
+    private String line(ByteBuffer buffer, int start, int newline) {
+        byte[] line = concat(partialLine, buffer, start, newline);
+        partialLine = new byte[0];
+        int length = line.length > 0 && line[line.length - 1] == CARRIAGE_RETURN ? line.length - 1 : line.length;
+        return new String(line, 0, length, UTF_8);
+    }
+
+    private static byte[] concat(byte[] prefix, ByteBuffer buffer, int start, int end) {
+        byte[] bytes = new byte[prefix.length + end - start];
+        System.arraycopy(prefix, 0, bytes, 0, prefix.length);
+        for (int index = start; index < end; index++) {
+            bytes[prefix.length + index - start] = buffer.get(index);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package acceptance.example.test;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.APPEND;
+
+public class LogTailTest implements WithAssertions {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void onlySeesTheLinesAppendedAfterTheTailWasStarted() throws IOException {
+        Path logFile = logFile("before\n");
+        LogTail logTail = LogTail.tailFromTheEnd(logFile);
+
+        append(logFile, "first\r\nsecond\n");
+
+        assertThat(logTail.lines()).containsExactly("first", "second");
+    }
+
+    @Test
+    public void aLineIsOnlySeenOnceItsNewlineHasBeenWritten() throws IOException {
+        Path logFile = logFile("");
+        LogTail logTail = LogTail.tailFromTheEnd(logFile);
+
+        append(logFile, "first\npart");
+        assertThat(logTail.lines()).containsExactly("first");
+
+        append(logFile, "ial\n");
+        assertThat(logTail.lines()).containsExactly("first", "partial");
+    }
+
+    private Path logFile(String content) throws IOException {
+        Path logFile = temporaryFolder.newFile("access.log").toPath();
+        Files.write(logFile, content.getBytes(UTF_8));
+        return logFile;
+    }
+
+    private static void append(Path logFile, String content) throws IOException {
+        Files.write(logFile, content.getBytes(UTF_8), APPEND);
+    }
+}
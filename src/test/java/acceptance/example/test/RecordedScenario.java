@@ -0,0 +1,266 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package acceptance.example.test;
+
+import com.github.tomakehurst.wiremock.common.Json;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import okhttp3.Headers;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static acceptance.example.test.HttpMessages.httpMessage;
+import static acceptance.example.test.HttpMessages.isTruncated;
+import static acceptance.example.test.HttpMessages.maxBodyBytes;
+import static java.lang.String.format;
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * The interactions of one scenario, as they are kept in the {@link InteractionLog}.
+ * <p>
+ * Each exchange is a request that a when made to the system under test, the response to it, and the interactions with
+ * the dependencies that happened while it was being handled. The access log lines of the whole scenario are kept too,
+ * so that the thens work the same way when the scenario is replayed.
+ */
+public class RecordedScenario {
+
+    private final List<Exchange> exchanges;
+    private final List<String> accessLogLines;
+
+    public RecordedScenario(List<Exchange> exchanges, List<String> accessLogLines) {
+        this.exchanges = unmodifiableList(new ArrayList<>(exchanges));
+        this.accessLogLines = unmodifiableList(new ArrayList<>(accessLogLines));
+    }
+
+    public List<Exchange> exchanges() {
+        return exchanges;
+    }
+
+    public List<String> accessLogLines() {
+        return accessLogLines;
+    }
+
+    void writeTo(DataOutputStream output) throws IOException {
+        output.writeInt(exchanges.size());
+        for (Exchange exchange : exchanges) {
+            exchange.writeTo(output);
+        }
+        writeStrings(output, accessLogLines);
+    }
+
+    static RecordedScenario readFrom(ByteBuffer input) {
+        int exchanges = input.getInt();
+        List<Exchange> readExchanges = new ArrayList<>(exchanges);
+        for (int exchange = 0; exchange < exchanges; exchange++) {
+            readExchanges.add(Exchange.readFrom(input));
+        }
+        return new RecordedScenario(readExchanges, readStrings(input));
+    }
+
+    /**
+     * The request is identified by its method, path and query, so that it does not depend on the port that the system
+     * under test happened to be listening on.
+     */
+    public static final class Exchange {
+        private final String request;
+        private final String protocol;
+        private final int code;
+        private final String message;
+        private final List<String> headerNamesAndValues;
+        private final byte[] body;
+        private final List<DependencyInteraction> dependencyInteractions;
+
+        private Exchange(String request, String protocol, int code, String message, List<String> headerNamesAndValues, byte[] body, List<DependencyInteraction> dependencyInteractions) {
+            this.request = request;
+            this.protocol = protocol;
+            this.code = code;
+            this.message = message;
+            this.headerNamesAndValues = headerNamesAndValues;
+            this.body = body;
+            this.dependencyInteractions = dependencyInteractions;
+        }
+
+        /**
+         * The body is the one that was already peeked at to capture the response, so the response is not read again. A
+         * body that was too big to be captured in full cannot be recorded, because it could not be replayed faithfully.
+         *
+         * @param response The response that the system under test sent
+         * @param peekedBody The body, as returned by {@link HttpMessages#peekBody(Response)}
+         * @param dependencyInteractions The interactions with the dependencies that happened before the response
+         * @return The exchange that led to the response
+         */
+        public static Exchange recordedFrom(Response response, byte[] peekedBody, List<DependencyInteraction> dependencyInteractions) {
+            String request = requestOf(response.request());
+            if (isTruncated(peekedBody)) {
+                throw new IllegalStateException(format("The response to '%s' is bigger than the %d bytes that are captured, so it cannot be recorded. Raise -Dfluentbdd.capture.maxItemBytes to record it.", request, maxBodyBytes()));
+            }
+            List<String> headerNamesAndValues = new ArrayList<>();
+            Headers headers = response.headers();
+            for (int header = 0; header < headers.size(); header++) {
+                headerNamesAndValues.add(headers.name(header));
+                headerNamesAndValues.add(headers.value(header));
+            }
+            return new Exchange(request, response.protocol().toString(), response.code(), response.message(), headerNamesAndValues, peekedBody, dependencyInteractions);
+        }
+
+        public static String requestOf(Request request) {
+            String query = request.url().encodedQuery();
+            return request.method() + " " + request.url().encodedPath() + (query == null ? "" : "?" + query);
+        }
+
+        public String request() {
+            return request;
+        }
+
+        public List<DependencyInteraction> dependencyInteractions() {
+            return dependencyInteractions;
+        }
+
+        public Response responseTo(Request request) {
+            Headers headers = Headers.of(headerNamesAndValues.toArray(new String[headerNamesAndValues.size()]));
+            String contentType = headers.get("Content-Type");
+            try {
+                return new Response.Builder()
+                        .request(request)
+                        .protocol(Protocol.get(protocol))
+                        .code(code)
+                        .message(message)
+                        .headers(headers)
+                        .body(ResponseBody.create(contentType == null ? null : MediaType.parse(contentType), body))
+                        .build();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void writeTo(DataOutputStream output) throws IOException {
+            writeString(output, request);
+            writeString(output, protocol);
+            output.writeInt(code);
+            writeString(output, message);
+            writeStrings(output, headerNamesAndValues);
+            writeBytes(output, body);
+            output.writeInt(dependencyInteractions.size());
+            for (DependencyInteraction dependencyInteraction : dependencyInteractions) {
+                dependencyInteraction.writeTo(output);
+            }
+        }
+
+        private static Exchange readFrom(ByteBuffer input) {
+            String request = readString(input);
+            String protocol = readString(input);
+            int code = input.getInt();
+            String message = readString(input);
+            List<String> headerNamesAndValues = readStrings(input);
+            byte[] body = readBytes(input);
+            int dependencyInteractions = input.getInt();
+            List<DependencyInteraction> readDependencyInteractions = new ArrayList<>(dependencyInteractions);
+            for (int dependencyInteraction = 0; dependencyInteraction < dependencyInteractions; dependencyInteraction++) {
+                readDependencyInteractions.add(DependencyInteraction.readFrom(input));
+            }
+            return new Exchange(request, protocol, code, message, headerNamesAndValues, body, readDependencyInteractions);
+        }
+    }
+
+    /**
+     * The request is kept as JSON, so that it can be verified against a WireMock request pattern when it is replayed.
+     */
+    public static final class DependencyInteraction {
+        public final String dependencyName;
+        public final String requestMethod;
+        public final String requestMessage;
+        public final int responseStatus;
+        public final String responseMessage;
+        private final String requestJson;
+
+        private DependencyInteraction(String dependencyName, String requestMethod, String requestMessage, int responseStatus, String responseMessage, String requestJson) {
+            this.dependencyName = dependencyName;
+            this.requestMethod = requestMethod;
+            this.requestMessage = requestMessage;
+            this.responseStatus = responseStatus;
+            this.responseMessage = responseMessage;
+            this.requestJson = requestJson;
+        }
+
+        public static DependencyInteraction recordedFrom(String dependencyName, com.github.tomakehurst.wiremock.http.Request request, com.github.tomakehurst.wiremock.http.Response response) {
+            return new DependencyInteraction(dependencyName, request.getMethod().getName(), httpMessage(request), response.getStatus(), httpMessage(response), Json.write(LoggedRequest.createFrom(request)));
+        }
+
+        public LoggedRequest request() {
+            return Json.read(requestJson, LoggedRequest.class);
+        }
+
+        private void writeTo(DataOutputStream output) throws IOException {
+            writeString(output, dependencyName);
+            writeString(output, requestMethod);
+            writeString(output, requestMessage);
+            output.writeInt(responseStatus);
+            writeString(output, responseMessage);
+            writeString(output, requestJson);
+        }
+
+        private static DependencyInteraction readFrom(ByteBuffer input) {
+            return new DependencyInteraction(readString(input), readString(input), readString(input), input.getInt(), readString(input), readString(input));
+        }
+    }
+
+    private static void writeStrings(DataOutputStream output, List<String> strings) throws IOException {
+        output.writeInt(strings.size());
+        for (String string : strings) {
+            writeString(output, string);
+        }
+    }
+
+    private static List<String> readStrings(ByteBuffer input) {
+        int strings = input.getInt();
+        List<String> read = new ArrayList<>(strings);
+        for (int string = 0; string < strings; string++) {
+            read.add(readString(input));
+        }
+        return read;
+    }
+
+    private static void writeString(DataOutputStream output, String string) throws IOException {
+        writeBytes(output, string.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String readString(ByteBuffer input) {
+        return new String(readBytes(input), StandardCharsets.UTF_8);
+    }
+
+    private static void writeBytes(DataOutputStream output, byte[] bytes) throws IOException {
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static byte[] readBytes(ByteBuffer input) {
+        byte[] bytes = new byte[input.getInt()];
+        input.get(bytes);
+        return bytes;
+    }
+}
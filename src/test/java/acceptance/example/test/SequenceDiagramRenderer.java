@@ -0,0 +1,228 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package acceptance.example.test;
+
+import com.googlecode.yatspec.plugin.sequencediagram.SequenceDiagramGenerator;
+import com.googlecode.yatspec.plugin.sequencediagram.SequenceDiagramMessage;
+import com.googlecode.yatspec.plugin.sequencediagram.SvgWrapper;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Renders sequence diagrams on a pool of background workers, so that the tests do not wait for PlantUML.
+ * <p>
+ * The diagrams of each test class are rendered in batches, and whatever is left in the batch is rendered as soon as
+ * one of its diagrams is needed, which is when the yatspec HTML is written. Diagrams with the same messages are only
+ * rendered once, no matter which test class they came from. Once the report of a test class has been written, its
+ * diagrams are forgotten so that they can be garbage collected.
+ * <p>
+ * Nothing says that a PlantUML generator can be used by several threads at once, so each worker has its own.
+ */
+public final class SequenceDiagramRenderer {
+
+    private static final AtomicInteger WORKER_COUNT = new AtomicInteger();
+    private static final SequenceDiagramRenderer SHARED = new SequenceDiagramRenderer(SequenceDiagramGenerator::new,
+            Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+                Thread thread = new Thread(runnable, "sequence-diagram-renderer-" + WORKER_COUNT.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }), Integer.getInteger("sequence.diagram.batchSize", 8));
+
+    private final ThreadLocal<SequenceDiagramGenerator> sequenceDiagramGenerator;
+    private final ExecutorService workers;
+    private final int batchSize;
+    private final ConcurrentMap<String, SequenceDiagram> diagramsByContentHash = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Class<?>, Batch> batchesByTestClass = new ConcurrentHashMap<>();
+
+    SequenceDiagramRenderer(Supplier<SequenceDiagramGenerator> sequenceDiagramGenerator, ExecutorService workers,
+                            int batchSize) {
+        this.sequenceDiagramGenerator = ThreadLocal.withInitial(sequenceDiagramGenerator);
+        this.workers = workers;
+        this.batchSize = batchSize;
+    }
+
+    public static SequenceDiagramRenderer sharedSequenceDiagramRenderer() {
+        return SHARED;
+    }
+
+    /**
+     * The messages are copied straight away, so this should be called on the test thread.
+     *
+     * @param testClass The test class that the diagram belongs to
+     * @param messages The messages to draw
+     * @return A diagram that will be rendered in the background
+     */
+    public SequenceDiagram render(Class<?> testClass, Iterable<SequenceDiagramMessage> messages) {
+        List<SequenceDiagramMessage> copy = new ArrayList<>();
+        messages.forEach(copy::add);
+        String contentHash = contentHash(copy);
+        SequenceDiagram existing = diagramsByContentHash.get(contentHash);
+        if (existing != null) {
+            return existing;
+        }
+        SequenceDiagram sequenceDiagram = new SequenceDiagram(batchFor(testClass), copy);
+        existing = diagramsByContentHash.putIfAbsent(contentHash, sequenceDiagram);
+        if (existing != null) {
+            return existing;
+        }
+        sequenceDiagram.batch.add(sequenceDiagram);
+        return sequenceDiagram;
+    }
+
+    /**
+     * Forget the diagrams of a test class, so that they are not kept for the rest of the run. Later scenarios that draw
+     * the same messages get a new diagram.
+     *
+     * @param testClass The test class whose report has been written
+     */
+    public void testClassReported(Class<?> testClass) {
+        Batch batch = batchesByTestClass.remove(testClass);
+        if (batch != null) {
+            diagramsByContentHash.values().removeIf(sequenceDiagram -> sequenceDiagram.batch == batch);
+        }
+    }
+
+    private Batch batchFor(Class<?> testClass) {
+        return batchesByTestClass.computeIfAbsent(testClass, Batch::new);
+    }
+
+    private static String contentHash(List<SequenceDiagramMessage> messages) {
+        MessageDigest digest = sha256();
+        for (SequenceDiagramMessage message : messages) {
+            update(digest, message.from());
+            update(digest, message.to());
+            update(digest, message.messageName());
+            update(digest, message.messageId());
+        }
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required to be supported by every JVM", e);
+        }
+    }
+
+    /**
+     * The diagrams of one test class that have not been given to a worker yet.
+     */
+    private final class Batch {
+        private final Class<?> testClass;
+        private final List<SequenceDiagram> pending = new ArrayList<>();
+
+        private Batch(Class<?> testClass) {
+            this.testClass = testClass;
+        }
+
+        private void add(SequenceDiagram sequenceDiagram) {
+            List<SequenceDiagram> full = null;
+            synchronized (this) {
+                pending.add(sequenceDiagram);
+                if (pending.size() >= batchSize) {
+                    full = drainPending();
+                }
+            }
+            submit(full);
+        }
+
+        private void flush() {
+            List<SequenceDiagram> remaining;
+            synchronized (this) {
+                remaining = drainPending();
+            }
+            submit(remaining);
+        }
+
+        private List<SequenceDiagram> drainPending() {
+            List<SequenceDiagram> drained = new ArrayList<>(pending);
+            pending.clear();
+            return drained;
+        }
+
+        private void submit(List<SequenceDiagram> batch) {
+            if (batch == null || batch.isEmpty()) {
+                return;
+            }
+            workers.execute(() -> batch.forEach(SequenceDiagram::renderNow));
+        }
+
+        @Override
+        public String toString() {
+            return "Sequence diagrams of " + testClass.getName();
+        }
+    }
+
+    /**
+     * A sequence diagram that is being rendered in the background. The rendered SVG is what is shown in the report.
+     */
+    public final class SequenceDiagram {
+        private final Batch batch;
+        private final List<SequenceDiagramMessage> messages;
+        private final CompletableFuture<SvgWrapper> svg = new CompletableFuture<>();
+
+        private SequenceDiagram(Batch batch, List<SequenceDiagramMessage> messages) {
+            this.batch = batch;
+            this.messages = messages;
+        }
+
+        private void renderNow() {
+            try {
+                svg.complete(sequenceDiagramGenerator.get().generateSequenceDiagram(messages));
+            } catch (RuntimeException e) {
+                svg.completeExceptionally(e);
+            }
+        }
+
+        /**
+         * Waits for the diagram to be rendered, rendering the rest of its batch first if it has not started yet.
+         *
+         * @return The rendered diagram
+         */
+        public SvgWrapper svg() {
+            batch.flush();
+            return svg.join();
+        }
+
+        @Override
+        public String toString() {
+            return svg().toString();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package acceptance.example.test;
+
+import acceptance.example.test.SequenceDiagramRenderer.SequenceDiagram;
+import com.googlecode.yatspec.plugin.sequencediagram.SequenceDiagramGenerator;
+import com.googlecode.yatspec.plugin.sequencediagram.SequenceDiagramMessage;
+import com.googlecode.yatspec.plugin.sequencediagram.SvgWrapper;
+import org.assertj.core.api.WithAssertions;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Collections.singletonList;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SequenceDiagramRendererTest implements WithAssertions {
+
+    private static final List<SequenceDiagramMessage> MESSAGES = singletonList(
+            new SequenceDiagramMessage("Weather Application", "Open Weather Map", "Request", "request_from_weather_application_to_open_weather_map"));
+
+    private final ExecutorService workers = Executors.newSingleThreadExecutor();
+    private final SequenceDiagramGenerator sequenceDiagramGenerator = mock(SequenceDiagramGenerator.class);
+
+    @After
+    public void tearDown() {
+        workers.shutdownNow();
+    }
+
+    @Test
+    public void rendersTheDiagramWhenItIsNeeded() {
+        when(sequenceDiagramGenerator.generateSequenceDiagram(anyListOf(SequenceDiagramMessage.class))).thenReturn(new SvgWrapper("<svg>diagram</svg>"));
+        SequenceDiagramRenderer renderer = new SequenceDiagramRenderer(() -> sequenceDiagramGenerator, workers, 8);
+
+        SequenceDiagram sequenceDiagram = renderer.render(getClass(), MESSAGES);
+
+        assertThat(sequenceDiagram.toString()).isEqualTo("<svg>diagram</svg>");
+    }
+
+    @Test
+    public void identicalDiagramsAreOnlyRenderedOnce() {
+        when(sequenceDiagramGenerator.generateSequenceDiagram(anyListOf(SequenceDiagramMessage.class))).thenReturn(new SvgWrapper("<svg/>"));
+        SequenceDiagramRenderer renderer = new SequenceDiagramRenderer(() -> sequenceDiagramGenerator, workers, 1);
+
+        SequenceDiagram first = renderer.render(getClass(), MESSAGES);
+        SequenceDiagram second = renderer.render(String.class, MESSAGES);
+        second.svg();
+
+        assertThat(second).isSameAs(first);
+        verify(sequenceDiagramGenerator, times(1)).generateSequenceDiagram(MESSAGES);
+    }
+
+    @Test
+    public void diagramsAreForgottenOnceTheReportOfTheirTestClassHasBeenWritten() {
+        when(sequenceDiagramGenerator.generateSequenceDiagram(anyListOf(SequenceDiagramMessage.class))).thenReturn(new SvgWrapper("<svg/>"));
+        SequenceDiagramRenderer renderer = new SequenceDiagramRenderer(() -> sequenceDiagramGenerator, workers, 1);
+
+        SequenceDiagram reported = renderer.render(getClass(), MESSAGES);
+        reported.svg();
+        renderer.testClassReported(getClass());
+        SequenceDiagram rendered = renderer.render(getClass(), MESSAGES);
+        rendered.svg();
+
+        assertThat(rendered).isNotSameAs(reported);
+        verify(sequenceDiagramGenerator, times(2)).generateSequenceDiagram(MESSAGES);
+    }
+
+    @Test
+    public void eachWorkerKeepsItsOwnGenerator() {
+        when(sequenceDiagramGenerator.generateSequenceDiagram(anyListOf(SequenceDiagramMessage.class))).thenReturn(new SvgWrapper("<svg/>"));
+        AtomicInteger generatorsCreated = new AtomicInteger();
+        SequenceDiagramRenderer renderer = new SequenceDiagramRenderer(() -> {
+            generatorsCreated.incrementAndGet();
+            return sequenceDiagramGenerator;
+        }, workers, 1);
+
+        renderer.render(getClass(), MESSAGES).svg();
+        renderer.render(String.class, singletonList(
+                new SequenceDiagramMessage("Open Weather Map", "Weather Application", "Response", "response_from_open_weather_map_to_weather_application"))).svg();
+
+        assertThat(generatorsCreated.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void renderingFailuresAreReportedWhenTheDiagramIsNeeded() {
+        IllegalStateException failure = new IllegalStateException("PlantUML failed");
+        when(sequenceDiagramGenerator.generateSequenceDiagram(anyListOf(SequenceDiagramMessage.class))).thenThrow(failure);
+        SequenceDiagramRenderer renderer = new SequenceDiagramRenderer(() -> sequenceDiagramGenerator, workers, 8);
+
+        SequenceDiagram sequenceDiagram = renderer.render(getClass(), MESSAGES);
+
+        assertThatThrownBy(sequenceDiagram::svg).hasCause(failure);
+    }
+}
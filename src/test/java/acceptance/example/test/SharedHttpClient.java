@@ -0,0 +1,64 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package acceptance.example.test;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * An {@link OkHttpClient} that is shared by every scenario in the JVM, both for the requests made by the whens and for
+ * the requests that the system under test makes to its stubbed dependencies.
+ * <p>
+ * Sharing one client means sharing one connection pool and one dispatcher, so connections are kept alive and reused
+ * across scenarios instead of every request paying for a new TCP handshake. HTTP/2 is used when the server supports it.
+ * The limits can be tuned with system properties:
+ * <ul>
+ * <li>{@code http.client.maxRequests}: the most requests that can be in flight at once</li>
+ * <li>{@code http.client.maxRequestsPerHost}: the most requests that can be in flight to each host at once</li>
+ * <li>{@code http.client.maxIdleConnections}: the most idle connections that are kept alive</li>
+ * <li>{@code http.client.keepAliveSeconds}: how long an idle connection is kept alive for</li>
+ * </ul>
+ */
+public final class SharedHttpClient {
+
+    private static final OkHttpClient SHARED = newSharedHttpClient();
+
+    private SharedHttpClient() {
+        // Use the static method
+    }
+
+    public static OkHttpClient sharedHttpClient() {
+        return SHARED;
+    }
+
+    private static OkHttpClient newSharedHttpClient() {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(Integer.getInteger("http.client.maxRequests", 64));
+        dispatcher.setMaxRequestsPerHost(Integer.getInteger("http.client.maxRequestsPerHost", 16));
+        ConnectionPool connectionPool = new ConnectionPool(
+                Integer.getInteger("http.client.maxIdleConnections", 16),
+                Long.getLong("http.client.keepAliveSeconds", 300), SECONDS);
+        return new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
+                .connectionPool(connectionPool)
+                .build();
+    }
+}
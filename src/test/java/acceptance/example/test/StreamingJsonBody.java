@@ -0,0 +1,152 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package acceptance.example.test;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import okhttp3.ResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static java.lang.String.format;
+
+/**
+ * A JSON response body that is read as a stream, at most once, keeping only the values at the paths that are asked for.
+ * The body is never held in memory as a whole, so large responses can be asserted on cheaply.
+ * <p>
+ * Paths are <a href="https://tools.ietf.org/html/rfc6901">JSON pointers</a> to scalar values, e.g.
+ * {@code /weather/0/description}. The body is read when values are first asked for, so every path that will be needed
+ * should be asked for at that point. Values that have already been extracted can be asked for again.
+ */
+public class StreamingJsonBody {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final ResponseBody responseBody;
+
+    // A path maps to null when the value there is a JSON null, and is missing from the map when there is no value there
+    private final Map<String, String> extractedValues = new HashMap<>();
+    private final Set<String> searchedPaths = new HashSet<>();
+
+    private boolean read;
+
+    public StreamingJsonBody(ResponseBody responseBody) {
+        this.responseBody = responseBody;
+    }
+
+    /**
+     * @param paths JSON pointers to the values to extract
+     * @return The values that were found, by path
+     */
+    public Map<String, String> valuesAt(Collection<String> paths) {
+        if (!read) {
+            read = true;
+            searchedPaths.addAll(paths);
+            readBody();
+        }
+        Map<String, String> values = new HashMap<>();
+        for (String path : paths) {
+            if (!searchedPaths.contains(path)) {
+                throw new IllegalStateException(format("The response body has already been read, so the value at '%s' can no longer be extracted. Ask for it along with the paths %s, in the first then that reads the body.", path, searchedPaths));
+            }
+            if (extractedValues.containsKey(path)) {
+                values.put(path, extractedValues.get(path));
+            }
+        }
+        return values;
+    }
+
+    private void readBody() {
+        try (ResponseBody body = responseBody; JsonParser jsonParser = JSON_FACTORY.createParser(body.byteStream())) {
+            JsonToken token = jsonParser.nextToken();
+            if (token != null) {
+                readValue(jsonParser, token, "");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void readValue(JsonParser jsonParser, JsonToken token, String path) throws IOException {
+        if (allValuesExtracted()) {
+            return;
+        }
+        if (token.isScalarValue()) {
+            readScalar(jsonParser, token, path);
+        } else if (!isOnTheWayToASearchedPath(path)) {
+            jsonParser.skipChildren();
+        } else if (token == JsonToken.START_OBJECT) {
+            readObject(jsonParser, path);
+        } else if (token == JsonToken.START_ARRAY) {
+            readArray(jsonParser, path);
+        }
+    }
+
+    private void readObject(JsonParser jsonParser, String path) throws IOException {
+        while (jsonParser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldPath = path + "/" + escape(jsonParser.getCurrentName());
+            readValue(jsonParser, jsonParser.nextToken(), fieldPath);
+            if (allValuesExtracted()) {
+                return;
+            }
+        }
+    }
+
+    private void readArray(JsonParser jsonParser, String path) throws IOException {
+        int index = 0;
+        JsonToken token = jsonParser.nextToken();
+        while (token != JsonToken.END_ARRAY) {
+            readValue(jsonParser, token, path + "/" + index++);
+            if (allValuesExtracted()) {
+                return;
+            }
+            token = jsonParser.nextToken();
+        }
+    }
+
+    private void readScalar(JsonParser jsonParser, JsonToken token, String path) throws IOException {
+        if (searchedPaths.contains(path)) {
+            extractedValues.put(path, token == JsonToken.VALUE_NULL ? null : jsonParser.getText());
+        }
+    }
+
+    private boolean isOnTheWayToASearchedPath(String path) {
+        String prefix = path + "/";
+        for (String searchedPath : searchedPaths) {
+            if (searchedPath.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean allValuesExtracted() {
+        return extractedValues.size() == searchedPaths.size();
+    }
+
+    private static String escape(String fieldName) {
+        return fieldName.replace("~", "~0").replace("/", "~1");
+    }
+}
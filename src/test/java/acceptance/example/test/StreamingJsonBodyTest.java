@@ -0,0 +1,67 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package acceptance.example.test;
+
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import org.assertj.core.api.WithAssertions;
+import org.junit.Test;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+
+public class StreamingJsonBodyTest implements WithAssertions {
+
+    private static final MediaType JSON = MediaType.parse("application/json");
+
+    private final StreamingJsonBody streamingJsonBody = new StreamingJsonBody(ResponseBody.create(JSON,
+            "{\"name\":\"London\",\"weather\":[{\"description\":\"light rain\"},{\"description\":\"fog\"}],\"a/b\":1,\"nothing\":null}"));
+
+    @Test
+    public void extractsTheValuesAtThePathsThatAreAskedFor() {
+        assertThat(streamingJsonBody.valuesAt(asList("/name", "/weather/1/description", "/a~1b")))
+                .containsEntry("/name", "London")
+                .containsEntry("/weather/1/description", "fog")
+                .containsEntry("/a~1b", "1")
+                .hasSize(3);
+    }
+
+    @Test
+    public void distinguishesNullValuesFromMissingValues() {
+        assertThat(streamingJsonBody.valuesAt(asList("/nothing", "/missing")))
+                .containsEntry("/nothing", null)
+                .doesNotContainKey("/missing");
+    }
+
+    @Test
+    public void valuesThatWereAlreadyExtractedCanBeAskedForAgain() {
+        streamingJsonBody.valuesAt(asList("/name", "/weather/0/description"));
+
+        assertThat(streamingJsonBody.valuesAt(singletonList("/weather/0/description")))
+                .containsEntry("/weather/0/description", "light rain");
+    }
+
+    @Test
+    public void valuesThatWereNotAskedForWhenTheBodyWasReadCannotBeExtracted() {
+        streamingJsonBody.valuesAt(singletonList("/name"));
+
+        assertThatThrownBy(() -> streamingJsonBody.valuesAt(singletonList("/weather/0/description")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("The response body has already been read, so the value at '/weather/0/description' can no longer be extracted. Ask for it along with the paths [/name], in the first then that reads the body.");
+    }
+}
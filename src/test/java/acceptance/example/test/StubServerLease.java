@@ -0,0 +1,96 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package acceptance.example.test;
+
+import acceptance.example.test.StubServerPool.PooledStubServer;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.MappingBuilder;
+import com.github.tomakehurst.wiremock.http.RequestListener;
+import com.github.tomakehurst.wiremock.matching.RequestPatternBuilder;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.lang.String.format;
+
+/**
+ * A stub server that has been leased from a {@link StubServerPool}.
+ * <p>
+ * Resetting or releasing the lease removes only the mappings that were added through it and forgets the requests that
+ * were received, which is much cheaper than resetting the whole stub server.
+ */
+public final class StubServerLease {
+
+    private final StubServerPool stubServerPool;
+    private final WireMockServer wireMockServer;
+    private final PooledStubServer pooledStubServer;
+    private final List<StubMapping> stubMappings = new ArrayList<>();
+
+    private boolean released;
+
+    StubServerLease(StubServerPool stubServerPool, PooledStubServer pooledStubServer) {
+        this.stubServerPool = stubServerPool;
+        this.wireMockServer = pooledStubServer.wireMockServer;
+        this.pooledStubServer = pooledStubServer;
+    }
+
+    public String baseUrl() {
+        return format("http://localhost:%d", wireMockServer.port());
+    }
+
+    /**
+     * @param requestListener Will be told about every request the stub server receives, until the lease is reset
+     */
+    public void listenWith(RequestListener requestListener) {
+        checkNotReleased();
+        pooledStubServer.listenWith(requestListener);
+    }
+
+    public void stubFor(MappingBuilder mappingBuilder) {
+        checkNotReleased();
+        stubMappings.add(wireMockServer.stubFor(mappingBuilder));
+    }
+
+    public void verify(int count, RequestPatternBuilder requestPatternBuilder) {
+        checkNotReleased();
+        wireMockServer.verify(count, requestPatternBuilder);
+    }
+
+    public void reset() {
+        checkNotReleased();
+        pooledStubServer.listenWith(null);
+        for (StubMapping stubMapping : stubMappings) {
+            wireMockServer.removeStubMapping(stubMapping);
+        }
+        stubMappings.clear();
+        wireMockServer.resetRequests();
+    }
+
+    public void release() {
+        reset();
+        released = true;
+        stubServerPool.release(pooledStubServer);
+    }
+
+    private void checkNotReleased() {
+        if (released) {
+            throw new IllegalStateException("This stub server lease has already been released");
+        }
+    }
+}
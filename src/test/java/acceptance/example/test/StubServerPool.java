@@ -0,0 +1,105 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package acceptance.example.test;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.RequestListener;
+import com.github.tomakehurst.wiremock.http.Response;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+
+/**
+ * A pool of started stub servers that are shared by every scenario in the JVM, so that each scenario does not pay for
+ * starting a stub server of its own.
+ * <p>
+ * A stub server is leased by one user at a time (a scenario, or a system under test that is only used by one scenario at
+ * a time), so the mappings it has are only ever the ones that user added.
+ * The servers listen on dynamic ports, so pools in different JVMs (e.g. parallel Surefire forks) do not collide.
+ * The pool grows to the number of scenarios that are running at the same time and the servers are stopped when the JVM
+ * exits.
+ */
+public final class StubServerPool {
+
+    private static final StubServerPool SHARED = new StubServerPool();
+
+    private final Queue<PooledStubServer> idleStubServers = new ConcurrentLinkedQueue<>();
+    private final Queue<PooledStubServer> allStubServers = new ConcurrentLinkedQueue<>();
+
+    private StubServerPool() {
+        Runtime.getRuntime().addShutdownHook(new Thread(this::stopAll, "stub-server-pool-shutdown"));
+    }
+
+    public static StubServerPool sharedStubServerPool() {
+        return SHARED;
+    }
+
+    /**
+     * @return A stub server that is not leased by anyone else, which must be released when it is no longer needed
+     */
+    public StubServerLease lease() {
+        PooledStubServer pooledStubServer = idleStubServers.poll();
+        if (pooledStubServer == null) {
+            pooledStubServer = startStubServer();
+        }
+        return new StubServerLease(this, pooledStubServer);
+    }
+
+    void release(PooledStubServer pooledStubServer) {
+        idleStubServers.add(pooledStubServer);
+    }
+
+    private PooledStubServer startStubServer() {
+        PooledStubServer pooledStubServer = new PooledStubServer();
+        pooledStubServer.wireMockServer.start();
+        allStubServers.add(pooledStubServer);
+        return pooledStubServer;
+    }
+
+    private void stopAll() {
+        for (PooledStubServer pooledStubServer : allStubServers) {
+            pooledStubServer.wireMockServer.stop();
+        }
+    }
+
+    static final class PooledStubServer implements RequestListener {
+        final WireMockServer wireMockServer = new WireMockServer(wireMockConfig().dynamicPort());
+
+        // Read on the stub server threads, written by the lease holder
+        private volatile RequestListener requestListener;
+
+        private PooledStubServer() {
+            wireMockServer.addMockServiceRequestListener(this);
+        }
+
+        void listenWith(RequestListener requestListener) {
+            this.requestListener = requestListener;
+        }
+
+        @Override
+        public void requestReceived(Request request, Response response) {
+            RequestListener currentRequestListener = requestListener;
+            if (currentRequestListener != null) {
+                currentRequestListener.requestReceived(request, response);
+            }
+        }
+    }
+}
@@ -17,134 +17,266 @@
  */
 package acceptance.example.test;
 
-import acceptance.example.production.WeatherApplication;
-import com.github.tomakehurst.wiremock.WireMockServer;
-import com.github.tomakehurst.wiremock.client.MappingBuilder;
-import com.github.tomakehurst.wiremock.http.RequestListener;
+import acceptance.example.test.RecordedScenario.DependencyInteraction;
+import acceptance.example.test.RecordedScenario.Exchange;
+import com.github.tomakehurst.wiremock.client.VerificationException;
+import com.github.tomakehurst.wiremock.matching.RequestPattern;
 import com.github.tomakehurst.wiremock.matching.RequestPatternBuilder;
+import io.github.theangrydev.fluentbdd.GivenBatch;
 import io.github.theangrydev.fluentbdd.WriteOnlyTestItems;
-import okhttp3.OkHttpClient;
+import okhttp3.Call;
+import okhttp3.Callback;
 import okhttp3.Request;
 import okhttp3.Response;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
-import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static acceptance.example.test.HttpMessages.httpMessage;
+import static acceptance.example.test.HttpMessages.peekBody;
+import static acceptance.example.test.InteractionLog.sharedInteractionLog;
+import static acceptance.example.test.InteractionMode.configuredInteractionMode;
+import static acceptance.example.test.SharedHttpClient.sharedHttpClient;
+import static io.github.theangrydev.fluentbdd.CapturedContent.capturedContent;
 import static java.lang.String.format;
-import static java.util.stream.Collectors.toList;
+import static java.util.Collections.emptyMap;
+import static java.util.concurrent.CompletableFuture.completedFuture;
 
-public class TestInfrastructure {
+/**
+ * The requests and responses are captured as {@link io.github.theangrydev.fluentbdd.CapturedContent}, so scenarios
+ * that see the same messages share one copy of them.
+ * <p>
+ * Each instance uses a {@link WeatherSystem} that is not being used by any other scenario at the same time, so scenarios
+ * can be run in parallel. The {@link WeatherSystem} is reused by later scenarios, so only the access log lines logged
+ * after the scenario started are visible to it.
+ * <p>
+ * When the {@link InteractionMode} is {@link InteractionMode#RECORD}, the exchanges of each scenario are written to the
+ * {@link InteractionLog} when the scenario is torn down. When it is {@link InteractionMode#REPLAY}, there is no
+ * {@link WeatherSystem}: the responses, the interactions with the dependencies and the access log lines all come from
+ * the {@link InteractionLog}, in the order they were recorded, and the requests must be the same as the recorded ones.
+ * A replayed scenario that does not make every recorded request fails when it is torn down.
+ */
+public class TestInfrastructure implements GivenBatch<InteractionToListenFor> {
 
     private static final String SYSTEM_NAME = "WeatherApplication";
-    private static final WireMockServer WIREMOCK;
-    private static final RequestListenerHolder REQUEST_LISTENER_HOLDER = new RequestListenerHolder();
 
     private final WriteOnlyTestItems writeOnlyTestItems;
 
-    private WeatherApplication weatherApplication;
-
-    private List<InteractionToListenFor> interactionsToListenFor = new ArrayList<>();
+    private final InteractionRecorder interactionRecorder = new InteractionRecorder();
+    private final InteractionMode interactionMode = configuredInteractionMode();
+    private final Queue<Exchange> exchanges = new ConcurrentLinkedQueue<>();
+    private final Queue<DependencyInteraction> replayedDependencyInteractions = new ConcurrentLinkedQueue<>();
+    private final Queue<Response> responses = new ConcurrentLinkedQueue<>();
 
-    static {
-        WIREMOCK = new WireMockServer(wireMockConfig().port(1235));
-        WIREMOCK.addMockServiceRequestListener(REQUEST_LISTENER_HOLDER);
-        WIREMOCK.start();
-    }
+    private String scenario;
+    private WeatherSystem weatherSystem;
+    private long accessLogMark;
+    private RecordedScenario recordedScenario;
 
     public TestInfrastructure(WriteOnlyTestItems writeOnlyTestItems) {
         this.writeOnlyTestItems = writeOnlyTestItems;
     }
 
+    public InteractionMode interactionMode() {
+        return interactionMode;
+    }
+
     public String serverBaseUrl() {
-        return weatherApplication.baseUrl();
+        if (interactionMode == InteractionMode.REPLAY) {
+            return "http://replayed-" + SYSTEM_NAME.toLowerCase();
+        }
+        return weatherSystem.baseUrl();
+    }
+
+    public List<String> accessLogLines() {
+        if (interactionMode == InteractionMode.REPLAY) {
+            return recordedScenario.accessLogLines();
+        }
+        return weatherSystem.requestLog().linesSince(accessLogMark);
+    }
+
+    public void setUp(String scenario, WeatherSystem weatherSystem) {
+        this.scenario = scenario;
+        this.weatherSystem = weatherSystem;
+        weatherSystem.stubServer().listenWith(interactionRecorder);
+        accessLogMark = weatherSystem.requestLog().mark();
+    }
+
+    public void setUpReplay(String scenario) {
+        this.scenario = scenario;
+        recordedScenario = sharedInteractionLog().replay(scenario);
+        exchanges.addAll(recordedScenario.exchanges());
+    }
+
+    public void tearDown() {
+        try {
+            if (interactionMode == InteractionMode.RECORD) {
+                sharedInteractionLog().record(scenario, new RecordedScenario(new ArrayList<>(exchanges), accessLogLines()));
+            }
+        } finally {
+            closeResponses();
+        }
+        if (interactionMode == InteractionMode.REPLAY && !exchanges.isEmpty()) {
+            throw new IllegalStateException(format("%d recorded requests were not made by scenario '%s'. Record the scenario again.", exchanges.size(), scenario));
+        }
     }
 
-    public void setUp() {
-        WIREMOCK.resetAll();
-        REQUEST_LISTENER_HOLDER.delegate = this::recordInteraction;
+    /**
+     * @param response The response to a request made by a when
+     * @return The {@link TestResult} for the response
+     */
+    public TestResult testResult(Response response) {
+        return new TestResult(this, response);
+    }
 
-        String wireMockServerUrl = format("http://localhost:%d", WIREMOCK.port());
-        weatherApplication = new WeatherApplication(1234, wireMockServerUrl);
-        weatherApplication.start();
+    /**
+     * Every response is closed, whether or not a {@link TestResult} was made for it.
+     */
+    private void closeResponses() {
+        Response response = responses.poll();
+        while (response != null) {
+            response.close();
+            response = responses.poll();
+        }
     }
 
-    public void tearDown() throws IOException {
-        weatherApplication.stop();
-        Files.delete(Paths.get("access.log"));
+    private Response closedAtTearDown(Response response) {
+        responses.add(response);
+        return response;
     }
 
     public Response execute(Request request) {
+        if (interactionMode == InteractionMode.REPLAY) {
+            return closedAtTearDown(replay(request));
+        }
         try {
-            return new OkHttpClient().newCall(request).execute();
+            return closedAtTearDown(sharedHttpClient().newCall(request).execute());
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
 
-    public void givenThat(String dependencyName, MappingBuilder mappingBuilder) {
-        WIREMOCK.givenThat(mappingBuilder);
-        interactionsToListenFor.add(new InteractionToListenFor(dependencyName, mappingBuilder));
+    public CompletableFuture<Response> executeAsync(Request request) {
+        if (interactionMode == InteractionMode.REPLAY) {
+            return completedFuture(closedAtTearDown(replay(request)));
+        }
+        CompletableFuture<Response> response = new CompletableFuture<>();
+        sharedHttpClient().newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                response.completeExceptionally(e);
+            }
+
+            @Override
+            public void onResponse(Call call, Response result) {
+                response.complete(closedAtTearDown(result));
+            }
+        });
+        return response;
+    }
+
+    private Response replay(Request request) {
+        Exchange exchange = exchanges.poll();
+        if (exchange == null) {
+            throw new IllegalStateException(format("The request '%s' was not recorded for scenario '%s'. Record the scenario again.", Exchange.requestOf(request), scenario));
+        }
+        if (!exchange.request().equals(Exchange.requestOf(request))) {
+            throw new IllegalStateException(format("The request '%s' is not the same as the recorded request '%s' for scenario '%s'. Record the scenario again.", Exchange.requestOf(request), exchange.request(), scenario));
+        }
+        replayedDependencyInteractions.addAll(exchange.dependencyInteractions());
+        return exchange.responseTo(request);
     }
 
-    private void recordInteraction(com.github.tomakehurst.wiremock.http.Request request, com.github.tomakehurst.wiremock.http.Response response) {
-        List<InteractionToListenFor> matches = interactionsToListenFor.stream()
-                .filter(interactionToListenFor -> interactionToListenFor.matches(request))
-                .collect(toList());
-        if (matches.isEmpty()) {
-            throw new IllegalStateException(format("Found an interaction that was not listened for. Request: %s%n%nResponse: %s%n", request, response));
+    /**
+     * The dependencies are not called when replaying, so there is nothing to prime.
+     */
+    @Override
+    public void prime(List<InteractionToListenFor> primings) {
+        if (interactionMode == InteractionMode.REPLAY) {
+            return;
         }
-        if (matches.size() > 1) {
-            throw new IllegalStateException(format("Found an interaction that was listened for multiple times. Request: %s%n%nResponse: %s%n", request, response));
+        for (InteractionToListenFor interactionToListenFor : primings) {
+            weatherSystem.stubServer().stubFor(interactionToListenFor.mappingBuilder);
         }
-        String dependencyName = matches.get(0).dependencyName;
-        recordOutgoingRequest(dependencyName, request);
-        recordIncomingResponse(dependencyName, response);
+        interactionRecorder.listenFor(primings);
+    }
+
+    private List<DependencyInteraction> recordInteractions() {
+        List<DependencyInteraction> dependencyInteractions = new ArrayList<>();
+        if (interactionMode == InteractionMode.REPLAY) {
+            DependencyInteraction dependencyInteraction = replayedDependencyInteractions.poll();
+            while (dependencyInteraction != null) {
+                recordOutgoingRequest(dependencyInteraction.dependencyName, dependencyInteraction.requestMethod, dependencyInteraction.requestMessage);
+                recordIncomingResponse(dependencyInteraction.dependencyName, dependencyInteraction.responseStatus, dependencyInteraction.responseMessage);
+                dependencyInteraction = replayedDependencyInteractions.poll();
+            }
+        } else {
+            interactionRecorder.drainTo((dependencyName, request, response) -> {
+                recordOutgoingRequest(dependencyName, request);
+                recordIncomingResponse(dependencyName, response);
+                if (interactionMode == InteractionMode.RECORD) {
+                    dependencyInteractions.add(DependencyInteraction.recordedFrom(dependencyName, request, response));
+                }
+            });
+        }
+        return dependencyInteractions;
     }
 
     public void recordIncomingRequest(String caller, Request request) {
-        writeOnlyTestItems.addToCapturedInputsAndOutputs(format("%s from %s to %s", request.method(), caller, SYSTEM_NAME), request);
+        writeOnlyTestItems.addToCapturedInputsAndOutputs(format("%s from %s to %s", request.method(), caller, SYSTEM_NAME), capturedContent(httpMessage(request)));
     }
 
+    /**
+     * The interactions with the dependencies all happen before the response is received, so they are recorded first.
+     */
     public void recordOutgoingResponse(String caller, Response response) {
-        writeOnlyTestItems.addToCapturedInputsAndOutputs(format("%s from %s to %s", response.code(), SYSTEM_NAME, caller), response);
+        List<DependencyInteraction> dependencyInteractions = recordInteractions();
+        byte[] peekedBody = peekBody(response);
+        if (interactionMode == InteractionMode.RECORD) {
+            exchanges.add(Exchange.recordedFrom(response, peekedBody, dependencyInteractions));
+        }
+        writeOnlyTestItems.addToCapturedInputsAndOutputs(format("%s from %s to %s", response.code(), SYSTEM_NAME, caller), capturedContent(httpMessage(response, peekedBody)));
     }
 
     public void recordOutgoingRequest(String dependencyName, com.github.tomakehurst.wiremock.http.Request request) {
-        writeOnlyTestItems.addToCapturedInputsAndOutputs(format("%s from %s to %s", request.getMethod().getName(), SYSTEM_NAME, dependencyName), request);
+        recordOutgoingRequest(dependencyName, request.getMethod().getName(), httpMessage(request));
     }
 
     public void recordIncomingResponse(String dependencyName, com.github.tomakehurst.wiremock.http.Response response) {
-        writeOnlyTestItems.addToCapturedInputsAndOutputs(format("%s from %s to %s", response.getStatus(), dependencyName, SYSTEM_NAME), response);
+        recordIncomingResponse(dependencyName, response.getStatus(), httpMessage(response));
     }
 
-    public void verifyThat(RequestPatternBuilder requestPatternBuilder) {
-        WIREMOCK.verify(1, requestPatternBuilder);
+    private void recordOutgoingRequest(String dependencyName, String method, String message) {
+        writeOnlyTestItems.addToCapturedInputsAndOutputs(format("%s from %s to %s", method, SYSTEM_NAME, dependencyName), capturedContent(message));
     }
 
-    private static class RequestListenerHolder implements RequestListener {
-        RequestListener delegate;
+    private void recordIncomingResponse(String dependencyName, int status, String message) {
+        writeOnlyTestItems.addToCapturedInputsAndOutputs(format("%s from %s to %s", status, dependencyName, SYSTEM_NAME), capturedContent(message));
+    }
 
-        @Override
-        public void requestReceived(com.github.tomakehurst.wiremock.http.Request request, com.github.tomakehurst.wiremock.http.Response response) {
-            delegate.requestReceived(request, response);
+    public void verifyThat(RequestPatternBuilder requestPatternBuilder) {
+        if (interactionMode == InteractionMode.REPLAY) {
+            verifyReplayed(requestPatternBuilder.build());
+            return;
         }
+        weatherSystem.stubServer().verify(1, requestPatternBuilder);
     }
 
-    private static class InteractionToListenFor {
-        final String dependencyName;
-        final MappingBuilder mappingBuilder;
-
-        private InteractionToListenFor(String dependencyName, MappingBuilder mappingBuilder) {
-            this.dependencyName = dependencyName;
-            this.mappingBuilder = mappingBuilder;
+    private void verifyReplayed(RequestPattern requestPattern) {
+        int matchingRequests = 0;
+        for (Exchange exchange : recordedScenario.exchanges()) {
+            for (DependencyInteraction dependencyInteraction : exchange.dependencyInteractions()) {
+                if (requestPattern.isMatchedBy(dependencyInteraction.request(), emptyMap())) {
+                    matchingRequests++;
+                }
+            }
         }
-
-        boolean matches(com.github.tomakehurst.wiremock.http.Request request) {
-            return mappingBuilder.build().getRequest().match(request).isExactMatch();
+        if (matchingRequests != 1) {
+            throw new VerificationException(requestPattern, 1, matchingRequests);
         }
     }
 }
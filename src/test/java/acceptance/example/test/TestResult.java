@@ -20,9 +20,7 @@ package acceptance.example.test;
 import com.github.tomakehurst.wiremock.matching.RequestPatternBuilder;
 import okhttp3.Response;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
+import java.io.Closeable;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -31,30 +29,43 @@ import static java.util.stream.Collectors.toList;
 /**
  * This is the complete result of a test, which includes a HTTP response and a way to verify outbound HTTP interactions.
  * If there was a database, there would be methods here exposing the database state.
+ * <p>
+ * The response comes from a shared connection pool, so it is closed by the {@link TestInfrastructure} when the
+ * scenario is torn down, whether or not the thens read its body, and whether or not this was made for it.
  */
-public class TestResult {
+public class TestResult implements Closeable {
 
     private final TestInfrastructure testInfrastructure;
     public final Response response;
 
-    public TestResult(TestInfrastructure testInfrastructure, Response response) {
+    private StreamingJsonBody jsonBody;
+
+    TestResult(TestInfrastructure testInfrastructure, Response response) {
         this.testInfrastructure = testInfrastructure;
         this.response = response;
     }
 
+    /**
+     * @return The response body as JSON that is streamed rather than read into memory. The body can only be read once,
+     * so this cannot be used along with {@link #response} body.
+     */
+    public StreamingJsonBody jsonBody() {
+        if (jsonBody == null) {
+            jsonBody = new StreamingJsonBody(response.body());
+        }
+        return jsonBody;
+    }
+
+    @Override
+    public void close() {
+        response.close();
+    }
+
     public void verifyThat(RequestPatternBuilder requestPatternBuilder) {
         testInfrastructure.verifyThat(requestPatternBuilder);
     }
 
     public List<String> accessLogLinesContaining(String term) {
-        return accessLogLines().stream().filter(line -> line.contains(term)).collect(toList());
-    }
-
-    private List<String> accessLogLines() {
-        try {
-            return Files.readAllLines(Paths.get("access.log"));
-        } catch (IOException e) {
-            throw new IllegalStateException(e);
-        }
+        return testInfrastructure.accessLogLines().stream().filter(line -> line.contains(term)).collect(toList());
     }
 }
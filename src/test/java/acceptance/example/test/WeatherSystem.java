@@ -0,0 +1,95 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package acceptance.example.test;
+
+import acceptance.example.production.WeatherApplication;
+import io.github.theangrydev.fluentbdd.SystemUnderTest;
+import okhttp3.HttpUrl;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import static acceptance.example.test.SharedHttpClient.sharedHttpClient;
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+
+/**
+ * The {@link WeatherApplication} along with the stub server that it uses in place of the real weather service, and the
+ * in memory log of the requests it has served. These all live as long as each other, so that the application can be
+ * reused by many scenarios.
+ */
+public class WeatherSystem implements SystemUnderTest {
+
+    private static final int ANY_FREE_PORT = 0;
+    private static final String WARM_UP_CITY = "Warm Up";
+
+    private final StubServerLease stubServer = StubServerPool.sharedStubServerPool().lease();
+    private final InMemoryRequestLog requestLog = new InMemoryRequestLog();
+    private final WeatherApplication weatherApplication = new WeatherApplication(ANY_FREE_PORT, stubServer.baseUrl(), requestLog, sharedHttpClient());
+
+    public StubServerLease stubServer() {
+        return stubServer;
+    }
+
+    public InMemoryRequestLog requestLog() {
+        return requestLog;
+    }
+
+    public String baseUrl() {
+        return weatherApplication.baseUrl();
+    }
+
+    @Override
+    public void start() {
+        weatherApplication.start();
+    }
+
+    @Override
+    public void warmUp() {
+        stubServer.stubFor(get(urlPathMatching("/data/2.5/weather"))
+                .withQueryParam("q", equalTo(WARM_UP_CITY))
+                .willReturn(aResponse().withStatus(200).withBody("{\"weather\":[{\"description\":\"warm up\"}]}")));
+        HttpUrl weatherUrl = HttpUrl.parse(baseUrl()).newBuilder().addPathSegment("weather").addQueryParameter("city", WARM_UP_CITY).build();
+        try (Response response = sharedHttpClient().newCall(new Request.Builder().url(weatherUrl).build()).execute()) {
+            response.body().string();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        stubServer.reset();
+    }
+
+    @Override
+    public boolean isHealthy() {
+        return weatherApplication.isRunning();
+    }
+
+    @Override
+    public void reset() {
+        stubServer.reset();
+    }
+
+    @Override
+    public void stop() {
+        weatherApplication.stop();
+        stubServer.release();
+    }
+}
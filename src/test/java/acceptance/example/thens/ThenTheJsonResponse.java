@@ -0,0 +1,65 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package acceptance.example.thens;
+
+import acceptance.example.test.TestResult;
+import io.github.theangrydev.fluentbdd.ThenAssertion;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * Assertions on values in a JSON response body, which is streamed by {@link acceptance.example.test.StreamingJsonBody}
+ * so that only the values at the paths asked for are kept.
+ * <p>
+ * The body can only be read once, by the first of these thens in a scenario, so that then must ask for every path that
+ * the scenario will assert on. Later thens can ask for any of those paths again, but asking for a new path fails.
+ * Several values can be asserted on by chaining them on the one then, e.g.
+ * {@code then(theJsonResponse.withValuesAt("/city", "/description")).hasValueAt("/city", "London").hasValueAt("/description", "light rain")}.
+ */
+public class ThenTheJsonResponse implements ThenAssertion<ThenTheJsonValues, TestResult> {
+
+    private final List<String> paths;
+
+    public ThenTheJsonResponse() {
+        this(emptyList());
+    }
+
+    private ThenTheJsonResponse(List<String> paths) {
+        this.paths = unmodifiableList(paths);
+    }
+
+    @Override
+    public ThenTheJsonValues then(TestResult testResult) {
+        return new ThenTheJsonValues(testResult.jsonBody().valuesAt(paths));
+    }
+
+    /**
+     * @param morePaths JSON pointers to values that will be asserted on
+     * @return A new instance that asks for these paths as well, so that one instance can be used for several thens
+     */
+    public ThenTheJsonResponse withValuesAt(String... morePaths) {
+        List<String> allPaths = new ArrayList<>(paths);
+        allPaths.addAll(asList(morePaths));
+        return new ThenTheJsonResponse(allPaths);
+    }
+}
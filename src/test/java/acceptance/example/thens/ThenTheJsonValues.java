@@ -0,0 +1,41 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package acceptance.example.thens;
+
+import org.assertj.core.api.WithAssertions;
+
+import java.util.Map;
+
+public class ThenTheJsonValues implements WithAssertions {
+
+    private final Map<String, String> values;
+
+    public ThenTheJsonValues(Map<String, String> values) {
+        this.values = values;
+    }
+
+    public ThenTheJsonValues hasValueAt(String path, String value) {
+        assertThat(values).containsEntry(path, value);
+        return this;
+    }
+
+    public ThenTheJsonValues hasNoValueAt(String path) {
+        assertThat(values).doesNotContainKey(path);
+        return this;
+    }
+}
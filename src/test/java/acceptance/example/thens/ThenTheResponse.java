@@ -43,4 +43,9 @@ public class ThenTheResponse implements WithAssertions {
         assertThat(responseBody).isEqualTo(response);
         return this;
     }
+
+    public ThenTheResponse contains(String text) {
+        assertThat(responseBody).contains(text);
+        return this;
+    }
 }
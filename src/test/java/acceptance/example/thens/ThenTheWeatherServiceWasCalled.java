@@ -17,15 +17,26 @@
  */
 package acceptance.example.thens;
 
+import acceptance.example.test.TestInfrastructure;
 import acceptance.example.test.TestResult;
 import io.github.theangrydev.fluentbdd.ThenVerification;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 
+/**
+ * The interactions are verified through the {@link TestInfrastructure} rather than the {@link TestResult}, so this can
+ * follow a {@link io.github.theangrydev.fluentbdd.LazyWhen} without the response having to be captured.
+ */
 public class ThenTheWeatherServiceWasCalled implements ThenVerification<TestResult> {
 
+    private final TestInfrastructure testInfrastructure;
+
     private String city;
 
+    public ThenTheWeatherServiceWasCalled(TestInfrastructure testInfrastructure) {
+        this.testInfrastructure = testInfrastructure;
+    }
+
     public ThenTheWeatherServiceWasCalled withCity(String city) {
         this.city = city;
         return this;
@@ -33,7 +44,7 @@ public class ThenTheWeatherServiceWasCalled implements ThenVerification<TestResu
 
     @Override
     public void verify(TestResult testResult) {
-        testResult.verifyThat(getRequestedFor(urlPathEqualTo("/data/2.5/weather"))
+        testInfrastructure.verifyThat(getRequestedFor(urlPathEqualTo("/data/2.5/weather"))
                 .withQueryParam("q", equalTo(city)));
     }
 }
@@ -19,18 +19,25 @@ package acceptance.example.whens;
 
 import acceptance.example.test.TestInfrastructure;
 import acceptance.example.test.TestResult;
+import acceptance.example.test.InteractionMode;
+import io.github.theangrydev.fluentbdd.AsyncWhen;
+import io.github.theangrydev.fluentbdd.LazyWhen;
 import io.github.theangrydev.fluentbdd.When;
 import okhttp3.HttpUrl;
 import okhttp3.Request;
 import okhttp3.Response;
 import org.assertj.core.api.WithAssertions;
 
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+
 public class WhenTheWeatherIsRequested implements When<TestResult>, WithAssertions {
 
     private final TestInfrastructure testInfrastructure;
     private final String caller;
 
     private String city;
+    private boolean asJson;
 
     public WhenTheWeatherIsRequested(TestInfrastructure testInfrastructure, String caller) {
         this.testInfrastructure = testInfrastructure;
@@ -44,12 +51,44 @@ public class WhenTheWeatherIsRequested implements When<TestResult>, WithAssertio
 
         Response response = testInfrastructure.execute(request);
         testInfrastructure.recordOutgoingResponse(caller, response);
-        return new TestResult(testInfrastructure, response);
+        return testInfrastructure.testResult(response);
+    }
+
+    private CompletionStage<TestResult> executeAsync() {
+        Request request = weatherRequest(testInfrastructure.serverBaseUrl());
+        testInfrastructure.recordIncomingRequest(caller, request);
+
+        return testInfrastructure.executeAsync(request).thenApply(response -> {
+            testInfrastructure.recordOutgoingResponse(caller, response);
+            return testInfrastructure.testResult(response);
+        });
+    }
+
+    /**
+     * When recording, the response is captured straight away, because it has to be written to the interaction log.
+     */
+    private Supplier<TestResult> executeLazily() {
+        Request request = weatherRequest(testInfrastructure.serverBaseUrl());
+        testInfrastructure.recordIncomingRequest(caller, request);
+
+        Response response = testInfrastructure.execute(request);
+        if (testInfrastructure.interactionMode() == InteractionMode.RECORD) {
+            testInfrastructure.recordOutgoingResponse(caller, response);
+            return () -> testInfrastructure.testResult(response);
+        }
+        return () -> {
+            testInfrastructure.recordOutgoingResponse(caller, response);
+            return testInfrastructure.testResult(response);
+        };
     }
 
     private Request weatherRequest(String baseUrl) {
         HttpUrl weatherUrl = HttpUrl.parse(baseUrl).newBuilder().addPathSegment("weather").addQueryParameter("city", this.city).build();
-        return new Request.Builder().url(weatherUrl).build();
+        Request.Builder request = new Request.Builder().url(weatherUrl);
+        if (asJson) {
+            request.header("Accept", "application/json");
+        }
+        return request.build();
     }
 
     public WhenTheWeatherIsRequested forCity(String city) {
@@ -57,7 +96,23 @@ public class WhenTheWeatherIsRequested implements When<TestResult>, WithAssertio
         return this;
     }
 
+    public WhenTheWeatherIsRequested asJson() {
+        this.asJson = true;
+        return this;
+    }
+
     public WhenTheWeatherIsRequested requestsTheWeather() {
         return this;
     }
+
+    public AsyncWhen<TestResult> withoutWaiting() {
+        return this::executeAsync;
+    }
+
+    /**
+     * @return A when that only captures the response, which means peeking at its body, if a then assertion needs it
+     */
+    public LazyWhen<TestResult> withoutCapturingTheResponse() {
+        return this::executeLazily;
+    }
 }
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.fluentbdd;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.Test;
+
+import static io.github.theangrydev.fluentbdd.CapturedContent.capturedContent;
+
+public class CaptureBudgetTest implements WithAssertions {
+
+    private final CaptureBudget captureBudget = new CaptureBudget(20);
+
+    @Test
+    public void itemsWithinTheScenarioBudgetAreKeptAsTheyAre() {
+        CapturedContent capturedContent = capturedContent("12345");
+
+        assertThat(captureBudget.withinBudget("12345")).isEqualTo("12345");
+        assertThat(captureBudget.withinBudget(capturedContent)).isSameAs(capturedContent);
+    }
+
+    @Test
+    public void itemsOverTheScenarioBudgetAreSpilled() {
+        captureBudget.withinBudget("1234567890");
+
+        Object overBudget = captureBudget.withinBudget("over budget");
+
+        assertThat(overBudget).isInstanceOf(CapturedContent.class);
+        assertThat(((CapturedContent) overBudget).isSpilled()).isTrue();
+        assertThat(overBudget.toString()).startsWith("over budget");
+    }
+
+    @Test
+    public void stringsAreMeasuredByTheBytesTheyHoldInMemory() {
+        Object overBudget = captureBudget.withinBudget("12345678901");
+
+        assertThat(overBudget).isInstanceOf(CapturedContent.class);
+        assertThat(((CapturedContent) overBudget).isSpilled()).isTrue();
+    }
+
+    @Test
+    public void itemsOfUnknownSizeAreAlwaysKept() {
+        Object item = new Object();
+        captureBudget.withinBudget("1234567890");
+
+        assertThat(captureBudget.withinBudget(item)).isSameAs(item);
+    }
+}
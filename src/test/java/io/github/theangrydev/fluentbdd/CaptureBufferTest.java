@@ -0,0 +1,98 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.fluentbdd;
+
+import com.googlecode.yatspec.state.givenwhenthen.TestState;
+import org.assertj.core.api.WithAssertions;
+import org.junit.Test;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+public class CaptureBufferTest implements WithAssertions {
+
+    private final CountDownLatch firstCaptureIsBeingBuffered = new CountDownLatch(1);
+    private final CountDownLatch bufferTheFirstCapture = new CountDownLatch(1);
+    private final CaptureBuffer captureBuffer = new CaptureBuffer(new FirstCaptureIsOvertaken());
+    private final TestState testState = new TestState();
+
+    @Test
+    public void capturesAreNotWrittenUntilEveryEarlierCaptureHasBeenBuffered() throws Exception {
+        Thread overtakenThread = new Thread(() -> captureBuffer.addToCapturedInputsAndOutputs("first", 1));
+        overtakenThread.start();
+        assertThat(firstCaptureIsBeingBuffered.await(5, SECONDS)).isTrue();
+        captureBuffer.addToCapturedInputsAndOutputs("second", 2);
+
+        captureBuffer.drainTo(testState);
+        assertThat(testState.capturedInputAndOutputs.getTypes()).isEmpty();
+
+        bufferTheFirstCapture.countDown();
+        overtakenThread.join();
+        captureBuffer.drainTo(testState);
+        assertThat(testState.capturedInputAndOutputs.getTypes().values()).containsExactly(1, 2);
+    }
+
+    @Test
+    public void capturesAreAllWrittenWhenFlushedEvenIfAnEarlierCaptureIsMissing() throws Exception {
+        Thread overtakenThread = new Thread(() -> captureBuffer.addToCapturedInputsAndOutputs("first", 1));
+        overtakenThread.start();
+        assertThat(firstCaptureIsBeingBuffered.await(5, SECONDS)).isTrue();
+        captureBuffer.addToCapturedInputsAndOutputs("second", 2);
+        captureBuffer.addToGivens("third", 3);
+
+        captureBuffer.flushTo(testState);
+
+        assertThat(testState.capturedInputAndOutputs.getTypes().values()).containsExactly(2);
+        assertThat(testState.interestingGivens.getTypes()).containsEntry("third", 3);
+        bufferTheFirstCapture.countDown();
+        overtakenThread.join();
+    }
+
+    /**
+     * The first capture is held up after it has been given its sequence number, so that the second one overtakes it.
+     */
+    @SuppressWarnings("serial")
+    private final class FirstCaptureIsOvertaken extends ConcurrentLinkedQueue<CaptureBuffer.Capture> {
+        private boolean first = true;
+
+        @Override
+        public boolean add(CaptureBuffer.Capture capture) {
+            if (isFirst()) {
+                firstCaptureIsBeingBuffered.countDown();
+                awaitUninterruptibly(bufferTheFirstCapture);
+            }
+            return super.add(capture);
+        }
+
+        private synchronized boolean isFirst() {
+            boolean wasFirst = first;
+            first = false;
+            return wasFirst;
+        }
+
+        private void awaitUninterruptibly(CountDownLatch latch) {
+            try {
+                latch.await(5, SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.fluentbdd;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+
+import static io.github.theangrydev.fluentbdd.CapturedContent.capturedContent;
+
+public class CapturedContentTest implements WithAssertions {
+
+    @Test
+    public void sameContentIsOnlyKeptOnce() {
+        assertThat(capturedContent(httpStatusLine(200))).isSameAs(capturedContent(httpStatusLine(200)));
+    }
+
+    @Test
+    public void differentContentIsKeptSeparately() {
+        assertThat(capturedContent("first")).isNotSameAs(capturedContent("second"));
+    }
+
+    @Test
+    public void isRenderedAsTheContent() {
+        assertThat(capturedContent("content").toString()).isEqualTo("content");
+    }
+
+    @Test
+    public void largeContentIsKeptCompressedAndRenderedInFull() {
+        StringBuilder content = new StringBuilder();
+        for (int line = 0; line < 1000; line++) {
+            content.append("{\"name\":\"London\",\"line\":").append(line).append("}\n");
+        }
+
+        CapturedContent capturedContent = capturedContent(content.toString());
+
+        assertThat(capturedContent.storedBytes()).isLessThan(content.length() / 4);
+        assertThat(capturedContent.toString()).isEqualTo(content.toString());
+    }
+
+    @Test
+    public void contentThatDoesNotCompressIsKeptAsItIs() {
+        assertThat(capturedContent("ab").storedBytes()).isEqualTo(2);
+        assertThat(capturedContent("ab").toString()).isEqualTo("ab");
+    }
+
+    @Test
+    public void contentOverTheItemBudgetIsSpilledToAFileAndTruncatedInMemory() throws IOException {
+        String content = randomContent(2 * 1024 * 1024);
+
+        CapturedContent capturedContent = capturedContent(content);
+
+        assertThat(capturedContent.isSpilled()).isTrue();
+        assertThat(capturedContent.storedBytes()).isEqualTo(4096);
+        assertThat(capturedContent.toString())
+                .startsWith(content.substring(0, 4096))
+                .contains("showing the first 4096 of " + content.length() + " bytes");
+        assertThat(capturedContent.toString()).endsWith("the rest is in fluent-bdd-captures" + File.separator + capturedContent.contentHash() + ".txt in the yatspec output directory");
+        Path spillFile = yatspecOutputDirectory().resolve("fluent-bdd-captures").resolve(capturedContent.contentHash() + ".txt");
+        assertThat(new String(Files.readAllBytes(spillFile), StandardCharsets.UTF_8)).isEqualTo(content);
+    }
+
+    @Test
+    public void spilledContentIsNotCutInTheMiddleOfACharacter() {
+        String content = "a" + randomContent(2 * 1024 * 1024).replace('x', '\u00e9');
+
+        CapturedContent capturedContent = capturedContent(content);
+
+        assertThat(capturedContent.toString()).doesNotContain("\ufffd");
+    }
+
+    @Test
+    public void capturedMemoryIsReported() {
+        capturedContent("reported");
+
+        assertThat(CapturedContent.captureMemoryReport()).matches("Holding \\d+ distinct contents \\(\\d+ bytes\\) using \\d+ bytes of memory \\(at most \\d+ bytes at once\\), \\d+ distinct contents \\(\\d+ bytes\\) were spilled to disk");
+    }
+
+    @Test
+    public void isAddressedByTheSha256HashOfTheContent() {
+        assertThat(capturedContent("abc").contentHash()).isEqualTo("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad");
+    }
+
+    @Test
+    public void distinctContentsAreCounted() {
+        int distinctContents = CapturedContent.distinctContents();
+
+        capturedContent("counted " + System.nanoTime());
+
+        assertThat(CapturedContent.distinctContents()).isGreaterThan(distinctContents);
+    }
+
+    private static Path yatspecOutputDirectory() {
+        return Paths.get(System.getProperty("yatspec.output.dir", System.getProperty("java.io.tmpdir")));
+    }
+
+    private static String randomContent(int length) {
+        Random random = new Random(length);
+        StringBuilder content = new StringBuilder(length);
+        for (int character = 0; character < length; character++) {
+            content.append((char) ('a' + random.nextInt(26)));
+        }
+        return content.toString();
+    }
+
+    private String httpStatusLine(int status) {
+        return "HTTP/1.1 " + status + " OK";
+    }
+}
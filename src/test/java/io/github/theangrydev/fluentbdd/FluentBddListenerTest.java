@@ -0,0 +1,140 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.fluentbdd;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.AfterClass;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+
+import static org.junit.runner.Description.createTestDescription;
+
+public class FluentBddListenerTest implements WithAssertions {
+
+    private static final RecordingFluentBddListener LISTENER = new RecordingFluentBddListener();
+
+    @BeforeClass
+    public static void runScenarios() {
+        JUnitCore.runClasses(Scenarios.class);
+    }
+
+    @AfterClass
+    public static void forgetEvents() {
+        LISTENER.clear();
+    }
+
+    @Test
+    public void noListenersAreDiscoveredWhenNoneAreRegistered() {
+        assertThat(FluentBddListeners.discoveredListeners().isEmpty()).isTrue();
+    }
+
+    @Test
+    public void scenariosRunWhenNoListenersAreDiscovered() {
+        Result result = JUnitCore.runClasses(ScenarioWithoutListeners.class);
+
+        assertThat(result.getFailures()).isEmpty();
+        assertThat(result.getRunCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void listenersAreToldAboutEachStepOfASuccessfulScenario() {
+        assertThat(eventsFor("successfulScenario")).containsExactly(
+                "scenarioStarted",
+                "stepStarted GIVEN", "stepFinished GIVEN SUCCEEDED",
+                "stepStarted WHEN", "stepFinished WHEN SUCCEEDED",
+                "stepStarted THEN", "stepFinished THEN SUCCEEDED",
+                "scenarioFinished SUCCEEDED");
+    }
+
+    @Test
+    public void listenersAreToldWhichStepFailed() {
+        assertThat(eventsFor("failingWhenScenario")).containsExactly(
+                "scenarioStarted",
+                "stepStarted GIVEN", "stepFinished GIVEN SUCCEEDED",
+                "stepStarted WHEN", "stepFinished WHEN FAILED",
+                "scenarioFinished FAILED");
+    }
+
+    @Test
+    public void listenersAreToldThatAScenarioWithoutAThenFailed() {
+        assertThat(eventsFor("scenarioWithoutThen")).containsExactly(
+                "scenarioStarted",
+                "stepStarted WHEN", "stepFinished WHEN SUCCEEDED",
+                "scenarioFinished FAILED");
+    }
+
+    @Test
+    public void listenersAreToldAboutSkippedScenarios() {
+        assertThat(eventsFor("skippedScenario")).containsExactly(
+                "scenarioStarted",
+                "scenarioFinished SKIPPED");
+    }
+
+    private static Iterable<String> eventsFor(String methodName) {
+        return LISTENER.eventsFor(createTestDescription(Scenarios.class, methodName).getDisplayName());
+    }
+
+    public static class Scenarios extends FluentBdd<String> {
+
+        private final ThenVerification<String> thenVerification = testResult -> {};
+
+        public Scenarios() {
+            super(new FluentBddListeners(LISTENER));
+        }
+
+        @Test
+        public void successfulScenario() {
+            given(() -> {});
+            when(() -> "result");
+            then(thenVerification);
+        }
+
+        @Test
+        public void failingWhenScenario() {
+            given(() -> {});
+            when(() -> {
+                throw new IllegalStateException("failure");
+            });
+        }
+
+        @Test
+        public void scenarioWithoutThen() {
+            when(() -> "result");
+        }
+
+        @Test
+        public void skippedScenario() {
+            Assume.assumeTrue(false);
+        }
+    }
+
+    public static class ScenarioWithoutListeners extends FluentBdd<String> {
+
+        private final ThenVerification<String> thenVerification = testResult -> {};
+
+        @Test
+        public void successfulScenario() {
+            given(() -> {});
+            when(() -> "result");
+            then(thenVerification);
+        }
+    }
+}
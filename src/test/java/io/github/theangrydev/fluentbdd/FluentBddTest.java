@@ -21,12 +21,25 @@ import org.assertj.core.api.WithAssertions;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.junit.runner.Description;
 import org.junit.runners.model.Statement;
 import org.mockito.Mockito;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
 import static java.lang.String.format;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.stream.Collectors.toList;
 import static org.junit.runner.Description.EMPTY;
+import static org.junit.runner.Description.createTestDescription;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 public class FluentBddTest extends FluentBdd<FluentBddTest.TestResult> implements WithAssertions {
@@ -38,6 +51,7 @@ public class FluentBddTest extends FluentBdd<FluentBddTest.TestResult> implement
     };
 
     private final ThenAssertion<TestResultAssertions, TestResult> someThenAssertion = TestResultAssertions::new;
+    private final MemoisedThenAssertion<TestResultAssertions, TestResult> memoisedThenAssertion = MemoisedThenAssertion.memoised(TestResultAssertions::new);
     private final MutableThenAssertion mutableThenAssertion = new MutableThenAssertion();
     private final ImmutableThenAssertion immutableThenAssertion = new ImmutableThenAssertion();
 
@@ -48,13 +62,22 @@ public class FluentBddTest extends FluentBdd<FluentBddTest.TestResult> implement
 
     private final TestSystem testSystem = mock(TestSystem.class);
     private final TestSystem nullResponseTestSystem = mock(TestSystem.class);
+    private final AsyncTestSystem asyncTestSystem = mock(AsyncTestSystem.class);
+    private final CompletableFuture<TestResult> pendingTestResult = new CompletableFuture<>();
+    private final FluentBdd<TestResult> shortAsyncTimeoutFluentBdd = new FluentBdd<>(Duration.ofMillis(1));
+    private final List<StepTiming> timedSteps = new ArrayList<>();
+    private final FluentBdd<TestResult> timedFluentBdd = new FluentBdd<TestResult>().withStepTimingListener(timedSteps::add);
 
     private final SomeDependency someDependency = mock(SomeDependency.class);
     private final SomeDependency someDependency2 = mock(SomeDependency.class);
     private final AnotherDependency anotherDependency = mock(AnotherDependency.class);
     private final MutableDependency mutableDependency = new MutableDependency();
     private final ImmutableDependency immutableDependency = new ImmutableDependency();
+    private final EqualToEverythingDependency equalToEverythingDependency = new EqualToEverythingDependency();
+    private final EqualToEverythingDependency anotherEqualToEverythingDependency = new EqualToEverythingDependency();
     private final Given methodReferenceGiven = this::givenMethod;
+    private final RecordingGivenBatch givenBatch = new RecordingGivenBatch();
+    private final RecordingGivenBatch anotherGivenBatch = new RecordingGivenBatch();
 
     private final TestResult testResult = new TestResult();
 
@@ -125,6 +148,24 @@ public class FluentBddTest extends FluentBdd<FluentBddTest.TestResult> implement
 
     static class TestResult {}
     private interface TestSystem extends When<TestResult> {}
+    private interface AsyncTestSystem extends AsyncWhen<TestResult> {}
+
+    @MaxDuration(millis = 1)
+    private static class SlowTestSystem implements When<TestResult> {
+        @Override
+        public TestResult execute() {
+            sleepFiveMilliseconds();
+            return new TestResult();
+        }
+    }
+
+    @MaxDuration(millis = 60_000)
+    private static class FastTestSystem implements When<TestResult> {
+        @Override
+        public TestResult execute() {
+            return new TestResult();
+        }
+    }
 
     private interface SomeDependency extends Given {}
 
@@ -152,13 +193,58 @@ public class FluentBddTest extends FluentBdd<FluentBddTest.TestResult> implement
         }
     }
 
+    private static class EqualToEverythingDependency extends MutableDependency {
+
+        @Override
+        public boolean equals(Object other) {
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return 0;
+        }
+    }
+
     private interface AnotherDependency extends Given {}
 
+    private static class RecordingGivenBatch implements GivenBatch<String> {
+
+        final List<String> batches = new ArrayList<>();
+
+        @Override
+        public void prime(List<String> primings) {
+            batches.add(String.join(", ", primings));
+        }
+    }
+
+    private static class BatchableDependency implements BatchableGiven<String> {
+
+        private final GivenBatch<String> givenBatch;
+        private final String priming;
+
+        BatchableDependency(GivenBatch<String> givenBatch, String priming) {
+            this.givenBatch = givenBatch;
+            this.priming = priming;
+        }
+
+        @Override
+        public GivenBatch<String> batch() {
+            return givenBatch;
+        }
+
+        @Override
+        public String priming() {
+            return priming;
+        }
+    }
+
     private interface SomeThenVerification extends ThenVerification<TestResult> {}
 
     @Before
     public void setUp() {
         Mockito.when(testSystem.execute()).thenReturn(testResult);
+        Mockito.when(asyncTestSystem.execute()).thenReturn(completedFuture(testResult));
     }
 
     @After
@@ -186,6 +272,18 @@ public class FluentBddTest extends FluentBdd<FluentBddTest.TestResult> implement
         this.when = true;
     }
 
+    @Override
+    public <T extends AsyncWhen<TestResult>> void whenAsync(T when) {
+        super.whenAsync(when);
+        this.when = true;
+    }
+
+    @Override
+    public <T extends LazyWhen<TestResult>> void whenLazy(T when) {
+        super.whenLazy(when);
+        this.when = true;
+    }
+
     @Override
     public <Then> Then then(ThenAssertion<Then, TestResult> thenAssertion) {
         Then then = super.then(thenAssertion);
@@ -214,6 +312,168 @@ public class FluentBddTest extends FluentBdd<FluentBddTest.TestResult> implement
         assertThat(then.testResult).isSameAs(testResult);
     }
 
+    @Test
+    public void memoisedAssertionsAreProducedOncePerScenario() {
+        given(someDependency);
+        when(testSystem);
+        TestResultAssertions then = then(memoisedThenAssertion);
+        TestResultAssertions and = and(memoisedThenAssertion);
+        assertThat(and).isSameAs(then);
+        assertThat(then.testResult).isSameAs(testResult);
+    }
+
+    @Test
+    public void assertionsThatAreNotMemoisedAreProducedForEachThen() {
+        given(someDependency);
+        when(testSystem);
+        TestResultAssertions then = then(someThenAssertion);
+        TestResultAssertions and = and(someThenAssertion);
+        assertThat(and).isNotSameAs(then);
+    }
+
+    @Test
+    public void memoisedAssertionsAreNotSharedBetweenScenarios() {
+        FluentBdd<TestResult> otherScenario = new FluentBdd<>();
+        otherScenario.when(testSystem);
+        given(someDependency);
+        when(testSystem);
+
+        assertThat(otherScenario.then(memoisedThenAssertion)).isNotSameAs(then(memoisedThenAssertion));
+    }
+
+    @Test
+    public void lazyTestResultIsNotCapturedUntilTheFirstThen() {
+        List<String> captures = new ArrayList<>();
+        given(someDependency);
+        whenLazy(() -> () -> {
+            captures.add("capture");
+            return testResult;
+        });
+        assertThat(captures).isEmpty();
+        TestResultAssertions then = then(someThenAssertion);
+        and(someThenVerification);
+        assertThat(then.testResult).isSameAs(testResult);
+        assertThat(captures).containsExactly("capture");
+    }
+
+    @Test
+    public void lazyTestResultIsNeverCapturedByAScenarioThatOnlyVerifies() throws Throwable {
+        List<String> captures = new ArrayList<>();
+        FluentBdd<TestResult> otherScenario = new FluentBdd<>();
+        otherScenario.apply(new Statement() {
+            @Override
+            public void evaluate() {
+                otherScenario.whenLazy(() -> () -> {
+                    captures.add("capture");
+                    return testResult;
+                });
+                otherScenario.then(someThenVerification);
+                otherScenario.and(someThenVerification);
+            }
+        }, EMPTY).evaluate();
+        assertThat(captures).isEmpty();
+        verify(someThenVerification, times(2)).verify(null);
+    }
+
+    @Test
+    public void lazyWhenIsInvokedImmediately() {
+        given(someDependency);
+        whenLazy(() -> {
+            testSystem.execute();
+            return () -> testResult;
+        });
+        verify(testSystem).execute();
+        then(someThenVerification);
+    }
+
+    @Test
+    public void lazyTestResultMustNotBeNull() {
+        FluentBdd<TestResult> otherScenario = new FluentBdd<>();
+        LazyWhen<TestResult> nullResultLazyWhen = () -> () -> null;
+        otherScenario.whenLazy(nullResultLazyWhen);
+        assertThatThrownBy(() -> otherScenario.then(someThenAssertion))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage(format("'%s' test result was null", nullResultLazyWhen));
+    }
+
+    @Test
+    public void lazyTestResultSupplierMustNotBeNull() {
+        FluentBdd<TestResult> otherScenario = new FluentBdd<>();
+        LazyWhen<TestResult> nullSupplierLazyWhen = () -> null;
+        assertThatThrownBy(() -> otherScenario.whenLazy(nullSupplierLazyWhen))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage(format("'%s' test result was null", nullSupplierLazyWhen));
+    }
+
+    @Test
+    public void asyncTestResultIsPassedToTheAssertions() {
+        given(someDependency);
+        whenAsync(asyncTestSystem);
+        TestResultAssertions then = then(someThenAssertion);
+        assertThat(then.testResult).isSameAs(testResult);
+    }
+
+    @Test
+    public void asyncTestResultIsPassedToTheVerification() {
+        given(someDependency);
+        whenAsync(asyncTestSystem);
+        then(someThenVerification);
+        verify(someThenVerification).verify(testResult);
+    }
+
+    @Test
+    public void asyncTestResultDoesNotNeedToBeCompleteUntilTheFirstThen() {
+        given(someDependency);
+        whenAsync(() -> pendingTestResult);
+        pendingTestResult.complete(testResult);
+        TestResultAssertions then = then(someThenAssertion);
+        assertThat(then.testResult).isSameAs(testResult);
+    }
+
+    @Test
+    public void asyncWhenThatReturnsNoStageIsReported() {
+        FluentBdd<TestResult> otherScenario = new FluentBdd<>();
+        AsyncWhen<TestResult> nullStageAsyncTestSystem = () -> null;
+        assertThatThrownBy(() -> otherScenario.whenAsync(nullStageAsyncTestSystem))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage(format("'%s' test result was null", nullStageAsyncTestSystem));
+    }
+
+    @Test
+    public void asyncNullResponseIsReported() {
+        AsyncWhen<TestResult> nullResponseAsyncTestSystem = () -> completedFuture(null);
+        shortAsyncTimeoutFluentBdd.whenAsync(nullResponseAsyncTestSystem);
+        assertThatThrownBy(() -> shortAsyncTimeoutFluentBdd.then(someThenAssertion))
+                .hasMessage(format("'%s' test result was null", nullResponseAsyncTestSystem));
+    }
+
+    @Test
+    public void asyncTimeoutIsReported() {
+        AsyncWhen<TestResult> neverCompletingAsyncTestSystem = () -> pendingTestResult;
+        shortAsyncTimeoutFluentBdd.whenAsync(neverCompletingAsyncTestSystem);
+        assertThatThrownBy(() -> shortAsyncTimeoutFluentBdd.then(someThenVerification))
+                .hasMessage(format("'%s' did not produce a test result within PT0.001S", neverCompletingAsyncTestSystem));
+    }
+
+    @Test
+    public void asyncUncheckedFailureIsRethrown() {
+        IllegalArgumentException failure = new IllegalArgumentException("failure");
+        pendingTestResult.completeExceptionally(failure);
+        shortAsyncTimeoutFluentBdd.whenAsync(() -> pendingTestResult);
+        assertThatThrownBy(() -> shortAsyncTimeoutFluentBdd.then(someThenAssertion)).isSameAs(failure);
+    }
+
+    @Test
+    public void asyncCheckedFailureIsReported() {
+        IOException failure = new IOException("failure");
+        pendingTestResult.completeExceptionally(failure);
+        AsyncWhen<TestResult> failingAsyncTestSystem = () -> pendingTestResult;
+        shortAsyncTimeoutFluentBdd.whenAsync(failingAsyncTestSystem);
+        assertThatThrownBy(() -> shortAsyncTimeoutFluentBdd.then(someThenAssertion))
+                .hasMessage(format("'%s' failed to produce a test result", failingAsyncTestSystem))
+                .hasCause(failure);
+    }
+
     @Test
     public void andThenAssertionBehavesTheSameAsThen() {
         given(someDependency);
@@ -272,6 +532,141 @@ public class FluentBddTest extends FluentBdd<FluentBddTest.TestResult> implement
         verify(testSystem).execute();
     }
 
+    @Test
+    public void batchableGivensAreNotPrimedBeforeTheWhen() {
+        given(new BatchableDependency(givenBatch, "first"));
+        and(new BatchableDependency(givenBatch, "second"));
+        assertThat(givenBatch.batches).isEmpty();
+    }
+
+    @Test
+    public void batchableGivensArePrimedTogetherBeforeTheWhen() {
+        given(new BatchableDependency(givenBatch, "first"));
+        and(new BatchableDependency(givenBatch, "second"));
+        when(testSystem);
+        assertThat(givenBatch.batches).containsExactly("first, second");
+    }
+
+    @Test
+    public void batchableGivensArePrimedTogetherBeforeTheAsyncWhen() {
+        given(new BatchableDependency(givenBatch, "first"));
+        and(new BatchableDependency(givenBatch, "second"));
+        whenAsync(asyncTestSystem);
+        assertThat(givenBatch.batches).containsExactly("first, second");
+    }
+
+    @Test
+    public void batchableGivensForDifferentBatchesArePrimedSeparately() {
+        given(new BatchableDependency(givenBatch, "first"));
+        and(new BatchableDependency(anotherGivenBatch, "second"));
+        and(new BatchableDependency(givenBatch, "third"));
+        when(testSystem);
+        assertThat(givenBatch.batches).containsExactly("first, third");
+        assertThat(anotherGivenBatch.batches).containsExactly("second");
+    }
+
+    @Test
+    public void batchableGivensArePrimedBeforeTheNextGivenThatIsNotBatchable() {
+        given(new BatchableDependency(givenBatch, "first"));
+        and(someDependency);
+        assertThat(givenBatch.batches).containsExactly("first");
+    }
+
+    @Test
+    public void batchableGivenCanBePrimedOnItsOwn() {
+        new BatchableDependency(givenBatch, "first").prime();
+        assertThat(givenBatch.batches).containsExactly("first");
+    }
+
+    @Test
+    public void eachStepIsTimedInOrder() {
+        timedFluentBdd.given(immutableDependency);
+        timedFluentBdd.when(testSystem);
+        timedFluentBdd.then(immutableThenVerification);
+        timedFluentBdd.then(immutableThenAssertion);
+
+        assertThat(timedSteps.stream().map(StepTiming::step).collect(toList()))
+                .containsExactly(Step.GIVEN, Step.WHEN, Step.THEN, Step.THEN);
+        assertThat(timedSteps.stream().map(StepTiming::stepClass).collect(toList()))
+                .containsExactly(ImmutableDependency.class, testSystem.getClass(), ImmutableThenVerification.class, ImmutableThenAssertion.class);
+    }
+
+    @Test
+    public void stepTimingIncludesTheTimeTakenByTheStep() {
+        timedFluentBdd.given(FluentBddTest::sleepFiveMilliseconds);
+
+        assertThat(timedSteps).hasSize(1);
+        assertThat(timedSteps.get(0).durationNanos()).isGreaterThanOrEqualTo(MILLISECONDS.toNanos(5));
+    }
+
+    @Test
+    public void batchOfGivensIsTimedAsOneStep() {
+        timedFluentBdd.given(new BatchableDependency(givenBatch, "first"));
+        timedFluentBdd.and(new BatchableDependency(givenBatch, "second"));
+        timedFluentBdd.when(testSystem);
+
+        assertThat(timedSteps.stream().map(StepTiming::stepClass).collect(toList()))
+                .containsExactly(RecordingGivenBatch.class, testSystem.getClass());
+    }
+
+    @Test
+    public void asyncWhenIsTimedWhenTheTestResultIsUsed() {
+        timedFluentBdd.whenAsync(asyncTestSystem);
+        assertThat(timedSteps).isEmpty();
+
+        timedFluentBdd.then(immutableThenVerification);
+        assertThat(timedSteps.stream().map(StepTiming::stepClass).collect(toList()))
+                .containsExactly(asyncTestSystem.getClass(), ImmutableThenVerification.class);
+    }
+
+    @Test
+    public void stepTimingsAreAddedToTheCapturedInputsAndOutputsWhenTheTestHasFinished() {
+        timedFluentBdd.given(immutableDependency);
+        timedFluentBdd.finished(EMPTY);
+
+        assertThat(timedFluentBdd.testState().capturedInputAndOutputs.getTypes()).containsKey("Step Timings");
+    }
+
+    @Test
+    public void whenThatIsOverTheBudgetOfItsClassFails() {
+        assertThatThrownBy(() -> timedFluentBdd.when(new SlowTestSystem()))
+                .isInstanceOf(AssertionError.class)
+                .hasMessageStartingWith("WHEN SlowTestSystem took ")
+                .hasMessageEndingWith("ms, which is over the budget of 1ms set by @MaxDuration on the class 'SlowTestSystem'");
+    }
+
+    @Test
+    public void whenThatIsWithinTheBudgetOfItsClassSucceeds() {
+        timedFluentBdd.when(new FastTestSystem());
+
+        assertThat(timedFluentBdd.testState().capturedInputAndOutputs.getTypes()).containsKey("Max Duration Budget");
+    }
+
+    @Test
+    @MaxDuration(millis = 1)
+    public void whenThatIsOverTheBudgetOfTheTestMethodFails() throws NoSuchMethodException {
+        timedFluentBdd.starting(descriptionOf("whenThatIsOverTheBudgetOfTheTestMethodFails"));
+
+        assertThatThrownBy(() -> timedFluentBdd.when(new SlowTestSystem()))
+                .isInstanceOf(AssertionError.class)
+                .hasMessageEndingWith("ms, which is over the budget of 1ms set by @MaxDuration on the test method 'whenThatIsOverTheBudgetOfTheTestMethodFails'");
+    }
+
+    @Test
+    @MaxDuration(millis = 60_000)
+    public void budgetOfTheTestMethodTakesPrecedenceOverTheBudgetOfTheWhenClass() throws NoSuchMethodException {
+        timedFluentBdd.starting(descriptionOf("budgetOfTheTestMethodTakesPrecedenceOverTheBudgetOfTheWhenClass"));
+
+        timedFluentBdd.when(new SlowTestSystem());
+    }
+
+    @Test
+    public void whenWithoutABudgetIsNotChecked() {
+        timedFluentBdd.when(testSystem);
+
+        assertThat(timedFluentBdd.testState().capturedInputAndOutputs.getTypes()).doesNotContainKey("Max Duration Budget");
+    }
+
     @Test
     public void multipleGivensOfTheSameTypeAreAllowed() {
         given(someDependency);
@@ -296,6 +691,22 @@ public class FluentBddTest extends FluentBdd<FluentBddTest.TestResult> implement
         }).hasMessage("There should only be one 'when', after the 'given' and before the 'then'");
     }
 
+    @Test
+    public void whenAndWhenAsyncAreNotAllowed() {
+        assertThatThrownBy(() -> {
+            when(testSystem);
+            whenAsync(asyncTestSystem);
+        }).hasMessage("There should only be one 'when', after the 'given' and before the 'then'");
+    }
+
+    @Test
+    public void callingGivenAfterWhenAsyncIsNotAllowed() {
+        assertThatThrownBy(() -> {
+            whenAsync(asyncTestSystem);
+            given(someDependency);
+        }).hasMessage("The 'given' steps must be specified before the 'when' and 'then' steps");
+    }
+
     @Test
     public void callingGivenAfterThenIsNotAllowed() {
         assertThatThrownBy(() -> {
@@ -351,6 +762,12 @@ public class FluentBddTest extends FluentBdd<FluentBddTest.TestResult> implement
         }).hasMessage(format("This '%s' instance has been used once already. To avoid accidentally sharing state, use a new instance.", mutableDependency.getClass().getSimpleName()));
     }
 
+    @Test
+    public void differentMutableGivenInstancesThatAreEqualCanBothBeUsed() {
+        given(equalToEverythingDependency.withState(1));
+        and(anotherEqualToEverythingDependency.withState(2));
+    }
+
     @Test
     public void immutableThenAssertionInstancesCanBeUsedMoreThanOnce() {
         given(someDependency);
@@ -417,10 +834,61 @@ public class FluentBddTest extends FluentBdd<FluentBddTest.TestResult> implement
         then(mutableThenVerification.withState(11));
     }
 
+    @Test
+    public void testItemsAddedOnTheTestThreadAreWrittenImmediately() {
+        addToGivens("given", "value");
+        addToCapturedInputsAndOutputs("captured", "value");
+
+        assertThat(testState().interestingGivens.getTypes()).containsEntry("given", "value");
+        assertThat(testState().capturedInputAndOutputs.getTypes()).containsEntry("captured", "value");
+    }
+
+    @Test
+    public void testItemsAddedFromOtherThreadsAreWrittenInTheOrderTheyWereAdded() throws Exception {
+        int itemsSeenByTheOtherThread = CompletableFuture.supplyAsync(() -> {
+            for (int item = 0; item < 100; item++) {
+                addToCapturedInputsAndOutputs("item " + item, item);
+            }
+            addToGivens("given from another thread", "value");
+            return testState().capturedInputAndOutputs.getTypes().size();
+        }).get();
+
+        assertThat(itemsSeenByTheOtherThread).isZero();
+        assertThat(testState().capturedInputAndOutputs.getTypes().values()).containsExactlyElementsOf(
+                IntStream.range(0, 100).boxed().collect(toList()));
+        assertThat(testState().interestingGivens.getTypes()).containsEntry("given from another thread", "value");
+    }
+
+    @Test
+    public void testItemsAddedFromOtherThreadsAreWrittenWhenTheScenarioFinishes() throws Exception {
+        FluentBdd<TestResult> otherScenario = new FluentBdd<>();
+        Thread otherTestThread = new Thread(() -> otherScenario.starting(EMPTY));
+        otherTestThread.start();
+        otherTestThread.join();
+        otherScenario.addToCapturedInputsAndOutputs("captured", "value");
+        Thread finishingThread = new Thread(() -> otherScenario.finished(EMPTY));
+        finishingThread.start();
+        finishingThread.join();
+
+        assertThat(otherScenario.testState().capturedInputAndOutputs.getTypes()).containsEntry("captured", "value");
+    }
+
     private void verifyMethod(TestResult testResult) {
         assertThat(testResult).isNotNull();
     }
 
+    private Description descriptionOf(String methodName) throws NoSuchMethodException {
+        return createTestDescription(getClass(), methodName, getClass().getMethod(methodName).getAnnotations());
+    }
+
+    private static void sleepFiveMilliseconds() {
+        try {
+            Thread.sleep(5);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     private void givenMethod() {
         System.out.println("givenMethod");
     }
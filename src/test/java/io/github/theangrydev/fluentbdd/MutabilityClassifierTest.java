@@ -0,0 +1,117 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.fluentbdd;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static io.github.theangrydev.fluentbdd.MutabilityClassifier.appearsToBeMutable;
+
+public class MutabilityClassifierTest implements WithAssertions {
+
+    private static class NoFields {}
+
+    private static class FinalFields {
+        private final int state = 1;
+        private static final String CONSTANT = "constant";
+
+        @Override
+        public String toString() {
+            return CONSTANT + state;
+        }
+    }
+
+    private static class NonFinalField {
+        private int state;
+
+        @Override
+        public String toString() {
+            return String.valueOf(state);
+        }
+    }
+
+    private static class NonFinalStaticField {
+        private static int state;
+
+        @Override
+        public String toString() {
+            return String.valueOf(state);
+        }
+    }
+
+    private static class InheritsNonFinalField extends NonFinalField {
+        private final int otherState = 2;
+
+        @Override
+        public String toString() {
+            return super.toString() + otherState;
+        }
+    }
+
+    private static class InheritsFinalFields extends FinalFields {}
+
+    @Test
+    public void classWithNoFieldsIsImmutable() {
+        assertThat(appearsToBeMutable(NoFields.class)).isFalse();
+    }
+
+    @Test
+    public void classWithOnlyFinalFieldsIsImmutable() {
+        assertThat(appearsToBeMutable(FinalFields.class)).isFalse();
+    }
+
+    @Test
+    public void classWithNonFinalFieldIsMutable() {
+        assertThat(appearsToBeMutable(NonFinalField.class)).isTrue();
+    }
+
+    @Test
+    public void classWithNonFinalStaticFieldIsMutable() {
+        assertThat(appearsToBeMutable(NonFinalStaticField.class)).isTrue();
+    }
+
+    @Test
+    public void classThatInheritsNonFinalFieldIsMutable() {
+        assertThat(appearsToBeMutable(InheritsNonFinalField.class)).isTrue();
+    }
+
+    @Test
+    public void classThatInheritsOnlyFinalFieldsIsImmutable() {
+        assertThat(appearsToBeMutable(InheritsFinalFields.class)).isFalse();
+    }
+
+    @Test
+    public void lambdaThatCapturesVariablesIsImmutable() {
+        AtomicInteger captured = new AtomicInteger();
+        Supplier<Integer> lambda = () -> captured.get() + 1;
+
+        assertThat(lambda.getClass().getDeclaredFields()).isNotEmpty();
+        assertThat(appearsToBeMutable(lambda.getClass())).isFalse();
+    }
+
+    @Test
+    public void methodReferenceIsImmutable() {
+        NonFinalField captured = new NonFinalField();
+        Supplier<String> methodReference = captured::toString;
+
+        assertThat(appearsToBeMutable(methodReference.getClass())).isFalse();
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.fluentbdd;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.Test;
+import org.junit.experimental.ParallelComputer;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+public class ParallelScenariosTest implements WithAssertions {
+
+    private static final int NUMBER_OF_SCENARIOS = 4;
+    private static final long START_TIMEOUT_SECONDS = 10;
+    private static final CyclicBarrier ALL_SCENARIOS_STARTED = new CyclicBarrier(NUMBER_OF_SCENARIOS);
+    private static final AtomicInteger RESULTS = new AtomicInteger();
+
+    @Test
+    public void scenariosRunInParallelDoNotShareState() {
+        Result result = JUnitCore.runClasses(new ParallelComputer(false, true), Scenarios.class);
+
+        assertThat(result.getFailures()).isEmpty();
+        assertThat(result.getRunCount()).isEqualTo(NUMBER_OF_SCENARIOS);
+    }
+
+    public static class Scenarios extends FluentBdd<Integer> implements WithAssertions {
+
+        @Test
+        public void first() throws Exception {
+            scenario();
+        }
+
+        @Test
+        public void second() throws Exception {
+            scenario();
+        }
+
+        @Test
+        public void third() throws Exception {
+            scenario();
+        }
+
+        @Test
+        public void fourth() throws Exception {
+            scenario();
+        }
+
+        private void scenario() throws Exception {
+            int expectedResult = RESULTS.incrementAndGet();
+            given(() -> addToGivens("Expected result", expectedResult));
+            awaitAllScenariosStarted();
+            when(() -> expectedResult);
+            ThenVerification<Integer> theResultIsFromThisScenario = result -> assertThat(result).isEqualTo(expectedResult);
+            then(theResultIsFromThisScenario);
+        }
+
+        private void awaitAllScenariosStarted() throws Exception {
+            try {
+                ALL_SCENARIOS_STARTED.await(START_TIMEOUT_SECONDS, SECONDS);
+            } catch (TimeoutException e) {
+                fail("Not all " + NUMBER_OF_SCENARIOS + " scenarios started within " + START_TIMEOUT_SECONDS + " seconds; are they being run in parallel?", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.fluentbdd;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.synchronizedList;
+
+/**
+ * This is given only to the scenarios of the test that uses it, so it is not told about the rest of the test run.
+ */
+public class RecordingFluentBddListener implements FluentBddListener {
+
+    private final Map<String, List<String>> eventsByScenario = new ConcurrentHashMap<>();
+
+    List<String> eventsFor(String scenarioName) {
+        return eventsByScenario.getOrDefault(scenarioName, emptyList());
+    }
+
+    void clear() {
+        eventsByScenario.clear();
+    }
+
+    @Override
+    public void scenarioStarted(String scenarioName) {
+        record(scenarioName, "scenarioStarted");
+    }
+
+    @Override
+    public void stepStarted(String scenarioName, Step step, Class<?> stepClass) {
+        record(scenarioName, "stepStarted " + step);
+    }
+
+    @Override
+    public void stepFinished(String scenarioName, Step step, Class<?> stepClass, long durationNanos, Outcome outcome) {
+        record(scenarioName, "stepFinished " + step + " " + outcome);
+    }
+
+    @Override
+    public void scenarioFinished(String scenarioName, long durationNanos, Outcome outcome) {
+        record(scenarioName, "scenarioFinished " + outcome);
+    }
+
+    private void record(String scenarioName, String event) {
+        eventsByScenario.computeIfAbsent(scenarioName, name -> synchronizedList(new ArrayList<>())).add(event);
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.fluentbdd;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.Test;
+import org.junit.runner.Description;
+
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.github.theangrydev.fluentbdd.RepeatedWhen.repeated;
+import static java.lang.String.format;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.runner.Description.createTestDescription;
+
+public class RepeatedWhenTest implements WithAssertions {
+
+    @Test
+    public void executesTheWhenTheGivenNumberOfTimes() {
+        AtomicInteger executions = new AtomicInteger();
+
+        RepeatedResults<Integer> repeatedResults = repeated(executions::incrementAndGet).times(5).execute();
+
+        assertThat(repeatedResults.results()).containsExactly(1, 2, 3, 4, 5);
+        assertThat(repeatedResults.latencies().count()).isEqualTo(5);
+    }
+
+    @Test
+    public void executesTheWhenConcurrently() {
+        CyclicBarrier allExecutionsStarted = new CyclicBarrier(4);
+
+        RepeatedResults<Integer> repeatedResults = repeated(() -> awaitOthers(allExecutionsStarted)).times(4).concurrency(4).execute();
+
+        assertThat(repeatedResults.results()).hasSize(4);
+    }
+
+    @Test
+    public void failureOfAnyExecutionIsRethrown() {
+        AtomicInteger executions = new AtomicInteger();
+        RepeatedWhen<Integer> repeatedWhen = repeated(() -> {
+            if (executions.incrementAndGet() == 3) {
+                throw new IllegalArgumentException("third execution failed");
+            }
+            return executions.get();
+        }).times(5).concurrency(2);
+
+        assertThatThrownBy(repeatedWhen::execute)
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("third execution failed");
+    }
+
+    @Test
+    public void mustBeRepeatedAtLeastOnce() {
+        assertThatThrownBy(() -> repeated(() -> 1).times(0))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("The 'when' must be repeated at least once but was asked to be repeated 0 times");
+    }
+
+    @Test
+    public void concurrencyMustBeAtLeastOne() {
+        assertThatThrownBy(() -> repeated(() -> 1).concurrency(0))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("The concurrency must be at least one but was 0");
+    }
+
+    @Test
+    public void latencyDistributionUsesTheNearestRankPercentile() {
+        LatencyDistribution latencyDistribution = new LatencyDistribution(new long[]{50, 10, 40, 20, 30});
+
+        assertThat(latencyDistribution.minNanos()).isEqualTo(10);
+        assertThat(latencyDistribution.maxNanos()).isEqualTo(50);
+        assertThat(latencyDistribution.meanNanos()).isEqualTo(30.0);
+        assertThat(latencyDistribution.percentileNanos(20)).isEqualTo(10);
+        assertThat(latencyDistribution.percentileNanos(50)).isEqualTo(30);
+        assertThat(latencyDistribution.percentileNanos(99)).isEqualTo(50);
+        assertThat(latencyDistribution.percentileNanos(100)).isEqualTo(50);
+    }
+
+    @Test
+    public void percentileMustBeGreaterThanZeroAndAtMostOneHundred() {
+        LatencyDistribution latencyDistribution = new LatencyDistribution(new long[]{10});
+
+        assertThatThrownBy(() -> latencyDistribution.percentileNanos(0))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("The percentile must be greater than 0 and at most 100 but was 0.0");
+        assertThatThrownBy(() -> latencyDistribution.percentileNanos(100.5))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("The percentile must be greater than 0 and at most 100 but was 100.5");
+    }
+
+    @Test
+    public void latencyDistributionIsSummarisedInMilliseconds() {
+        LatencyDistribution latencyDistribution = new LatencyDistribution(new long[]{1_000_000, 3_000_000});
+
+        assertThat(latencyDistribution).hasToString("2 executions: min 1.000ms, mean 2.000ms, p50 1.000ms, p90 3.000ms, p99 3.000ms, max 3.000ms");
+    }
+
+    @Test
+    @Percentile(value = 99, millis = 60_000)
+    public void repeatedWhenWithinThePercentileBudgetOfTheTestMethodSucceeds() throws NoSuchMethodException {
+        FluentBdd<RepeatedResults<Integer>> fluentBdd = new FluentBdd<>();
+        fluentBdd.starting(descriptionOf("repeatedWhenWithinThePercentileBudgetOfTheTestMethodSucceeds"));
+
+        fluentBdd.when(repeated(() -> 1).times(10));
+
+        assertThat(fluentBdd.testState().capturedInputAndOutputs.getTypes()).containsKey("Percentile Budget");
+    }
+
+    @Test
+    @Percentile(value = 50, millis = 1)
+    public void repeatedWhenOverThePercentileBudgetOfTheTestMethodFails() throws NoSuchMethodException {
+        FluentBdd<RepeatedResults<Integer>> fluentBdd = new FluentBdd<>();
+        fluentBdd.starting(descriptionOf("repeatedWhenOverThePercentileBudgetOfTheTestMethodFails"));
+
+        assertThatThrownBy(() -> fluentBdd.when(repeated(RepeatedWhenTest::sleepFiveMilliseconds).times(3)))
+                .isInstanceOf(AssertionError.class)
+                .hasMessageStartingWith("p50 of 3 executions took ")
+                .hasMessageEndingWith("ms, which is over the budget of 1ms set by @Percentile on the test method 'repeatedWhenOverThePercentileBudgetOfTheTestMethodFails'");
+    }
+
+    @Test
+    @Percentile(value = 50, millis = 1)
+    public void percentileBudgetIsNotCheckedWithoutLatencyBudgets() throws NoSuchMethodException {
+        FluentBdd<RepeatedResults<Integer>> fluentBdd = new FluentBdd<RepeatedResults<Integer>>().withoutLatencyBudgets();
+        fluentBdd.starting(descriptionOf("percentileBudgetIsNotCheckedWithoutLatencyBudgets"));
+
+        fluentBdd.when(repeated(RepeatedWhenTest::sleepFiveMilliseconds).times(3));
+
+        assertThat(fluentBdd.testState().capturedInputAndOutputs.getTypes()).doesNotContainKey("Percentile Budget");
+    }
+
+    @Test
+    @Percentile(value = 99.9, millis = 1)
+    public void percentileBudgetCanOnlyBeCheckedAgainstARepeatedWhen() throws NoSuchMethodException {
+        FluentBdd<Integer> fluentBdd = new FluentBdd<>();
+        fluentBdd.starting(descriptionOf("percentileBudgetCanOnlyBeCheckedAgainstARepeatedWhen"));
+
+        assertThatThrownBy(() -> fluentBdd.when(() -> 1))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("@Percentile on the test method 'percentileBudgetCanOnlyBeCheckedAgainstARepeatedWhen' can only be checked against a RepeatedWhen but the test result was '1'");
+    }
+
+    @Test
+    @Percentile(value = 99, millis = 60_000)
+    public void percentileBudgetCannotBeCheckedAgainstAnAsyncWhen() throws NoSuchMethodException {
+        FluentBdd<RepeatedResults<Integer>> fluentBdd = new FluentBdd<>();
+        fluentBdd.starting(descriptionOf("percentileBudgetCannotBeCheckedAgainstAnAsyncWhen"));
+        RepeatedWhen<Integer> repeatedWhen = repeated(() -> 1);
+        AsyncWhen<RepeatedResults<Integer>> asyncWhen = () -> completedFuture(repeatedWhen.execute());
+
+        assertThatThrownBy(() -> fluentBdd.whenAsync(asyncWhen))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage(format("@Percentile on the test method 'percentileBudgetCannotBeCheckedAgainstAnAsyncWhen' can only be checked against a RepeatedWhen passed to 'when' but '%s' was passed to 'whenAsync'", asyncWhen));
+    }
+
+    @Test
+    @Percentile(value = 99, millis = 60_000)
+    public void percentileBudgetCannotBeCheckedAgainstALazyWhen() throws NoSuchMethodException {
+        FluentBdd<RepeatedResults<Integer>> fluentBdd = new FluentBdd<>();
+        fluentBdd.starting(descriptionOf("percentileBudgetCannotBeCheckedAgainstALazyWhen"));
+        RepeatedWhen<Integer> repeatedWhen = repeated(() -> 1);
+        LazyWhen<RepeatedResults<Integer>> lazyWhen = () -> repeatedWhen::execute;
+
+        assertThatThrownBy(() -> fluentBdd.whenLazy(lazyWhen))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage(format("@Percentile on the test method 'percentileBudgetCannotBeCheckedAgainstALazyWhen' can only be checked against a RepeatedWhen passed to 'when' but '%s' was passed to 'whenLazy'", lazyWhen));
+    }
+
+    @Test
+    @Percentile(value = 99, millis = 60_000)
+    public void percentileBudgetCannotBeCheckedAgainstARepeatedWhenUsedAsAGiven() throws NoSuchMethodException {
+        FluentBdd<RepeatedResults<Integer>> fluentBdd = new FluentBdd<>();
+        fluentBdd.starting(descriptionOf("percentileBudgetCannotBeCheckedAgainstARepeatedWhenUsedAsAGiven"));
+        RepeatedWhen<Integer> repeatedWhen = repeated(() -> 1).times(2);
+
+        assertThatThrownBy(() -> fluentBdd.given(repeatedWhen))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage(format("@Percentile on the test method 'percentileBudgetCannotBeCheckedAgainstARepeatedWhenUsedAsAGiven' can only be checked against a RepeatedWhen passed to 'when' but '%s' was passed to 'given'", repeatedWhen));
+    }
+
+    private Description descriptionOf(String methodName) throws NoSuchMethodException {
+        return createTestDescription(getClass(), methodName, getClass().getMethod(methodName).getAnnotations());
+    }
+
+    private static int sleepFiveMilliseconds() {
+        try {
+            Thread.sleep(5);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        return 1;
+    }
+
+    private static int awaitOthers(CyclicBarrier allExecutionsStarted) {
+        try {
+            return allExecutionsStarted.await(5, SECONDS);
+        } catch (InterruptedException | BrokenBarrierException | TimeoutException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of fluent-bdd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.fluentbdd;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.Test;
+import org.junit.runner.Description;
+import org.junit.runners.model.Statement;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.junit.runner.Description.createSuiteDescription;
+import static org.junit.runner.Description.createTestDescription;
+
+public class SystemUnderTestTest implements WithAssertions {
+
+    private static class RecordingSystem implements SystemUnderTest {
+        final List<String> events = new ArrayList<>();
+        boolean healthy = true;
+
+        @Override
+        public void start() {
+            events.add("start");
+        }
+
+        @Override
+        public void stop() {
+            events.add("stop");
+        }
+
+        @Override
+        public void warmUp() {
+            events.add("warm up");
+        }
+
+        @Override
+        public boolean isHealthy() {
+            return healthy;
+        }
+
+        @Override
+        public void reset() {
+            events.add("reset");
+        }
+    }
+
+    private static class PerTestSystem extends RecordingSystem {}
+
+    private static class PerJvmSystem extends RecordingSystem {}
+
+    private static class UnhealthyPerJvmSystem extends RecordingSystem {}
+
+    private static class PerClassSystem extends RecordingSystem {}
+
+    private static class FailsToResetSystem extends RecordingSystem {
+        @Override
+        public void reset() {
+            throw new IllegalStateException("reset failed");
+        }
+    }
+
+    private static class FailsToStopSystem extends RecordingSystem {
+        @Override
+        public void stop() {
+            throw new IllegalStateException("stop failed");
+        }
+    }
+
+    private static class FailsToWarmUpSystem extends RecordingSystem {
+        @Override
+        public void warmUp() {
+            throw new IllegalStateException("warm up failed");
+        }
+    }
+
+    private static class NeverHealthySystem extends RecordingSystem {
+        NeverHealthySystem() {
+            healthy = false;
+        }
+    }
+
+    @Test
+    public void perTestSystemIsStartedAndWarmedUpForTheScenarioAndStoppedWhenItHasFinished() {
+        FluentBdd<Object> scenario = scenarioIn(SystemUnderTestTest.class);
+
+        PerTestSystem system = scenario.systemUnderTest(SystemUnderTestScope.PER_TEST, PerTestSystem.class, PerTestSystem::new);
+        assertThat(system.events).containsExactly("start", "warm up");
+
+        scenario.finished(Description.EMPTY);
+        assertThat(system.events).containsExactly("start", "warm up", "stop");
+    }
+
+    @Test
+    public void perJvmSystemIsResetAndReusedByTheNextScenario() {
+        FluentBdd<Object> firstScenario = scenarioIn(SystemUnderTestTest.class);
+        PerJvmSystem system = firstScenario.systemUnderTest(SystemUnderTestScope.PER_JVM, PerJvmSystem.class, PerJvmSystem::new);
+        firstScenario.finished(Description.EMPTY);
+
+        FluentBdd<Object> secondScenario = scenarioIn(String.class);
+        PerJvmSystem reusedSystem = secondScenario.systemUnderTest(SystemUnderTestScope.PER_JVM, PerJvmSystem.class, PerJvmSystem::new);
+        secondScenario.finished(Description.EMPTY);
+
+        assertThat(reusedSystem).isSameAs(system);
+        assertThat(system.events).containsExactly("start", "warm up", "reset", "reset");
+    }
+
+    @Test
+    public void scenariosThatRunAtTheSameTimeAreGivenDifferentSystems() throws Throwable {
+        runTestClass(SystemUnderTestTest.class, () -> {
+            FluentBdd<Object> firstScenario = scenarioIn(SystemUnderTestTest.class);
+            FluentBdd<Object> secondScenario = scenarioIn(SystemUnderTestTest.class);
+
+            PerClassSystem firstSystem = firstScenario.systemUnderTest(SystemUnderTestScope.PER_CLASS, PerClassSystem.class, PerClassSystem::new);
+            PerClassSystem secondSystem = secondScenario.systemUnderTest(SystemUnderTestScope.PER_CLASS, PerClassSystem.class, PerClassSystem::new);
+
+            assertThat(secondSystem).isNotSameAs(firstSystem);
+            firstScenario.finished(Description.EMPTY);
+            secondScenario.finished(Description.EMPTY);
+        });
+    }
+
+    @Test
+    public void perClassSystemIsNotSharedWithOtherClasses() throws Throwable {
+        List<PerClassSystem> systems = new ArrayList<>();
+        runTestClass(Integer.class, () -> {
+            FluentBdd<Object> scenario = scenarioIn(Integer.class);
+            systems.add(scenario.systemUnderTest(SystemUnderTestScope.PER_CLASS, PerClassSystem.class, PerClassSystem::new));
+            scenario.finished(Description.EMPTY);
+        });
+        runTestClass(Long.class, () -> {
+            FluentBdd<Object> scenario = scenarioIn(Long.class);
+            systems.add(scenario.systemUnderTest(SystemUnderTestScope.PER_CLASS, PerClassSystem.class, PerClassSystem::new));
+            scenario.finished(Description.EMPTY);
+        });
+
+        assertThat(systems.get(1)).isNotSameAs(systems.get(0));
+    }
+
+    @Test
+    public void perClassSystemIsReusedWithinTheClassAndStoppedWhenTheClassHasFinished() throws Throwable {
+        List<PerClassSystem> systems = new ArrayList<>();
+        runTestClass(Short.class, () -> {
+            for (int scenarios = 0; scenarios < 2; scenarios++) {
+                FluentBdd<Object> scenario = scenarioIn(Short.class);
+                systems.add(scenario.systemUnderTest(SystemUnderTestScope.PER_CLASS, PerClassSystem.class, PerClassSystem::new));
+                scenario.finished(Description.EMPTY);
+            }
+        });
+
+        assertThat(systems.get(1)).isSameAs(systems.get(0));
+        assertThat(systems.get(0).events).containsExactly("start", "warm up", "reset", "reset", "stop");
+    }
+
+    @Test
+    public void perClassSystemCanOnlyBeUsedByATestClassWithTheClassRule() {
+        FluentBdd<Object> scenario = scenarioIn(Byte.class);
+
+        assertThatThrownBy(() -> scenario.systemUnderTest(SystemUnderTestScope.PER_CLASS, PerClassSystem.class, PerClassSystem::new))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("A PER_CLASS system under test can only be used by a test class that extends FluentBdd or has a @ClassRule made by FluentBdd.perClassSystemsUnderTest(), so that it can be stopped when the class has finished, but 'java.lang.Byte' does not");
+    }
+
+    @Test
+    public void everySystemIsReleasedEvenIfReleasingSomeOfThemFails() {
+        FluentBdd<Object> scenario = scenarioIn(SystemUnderTestTest.class);
+        scenario.systemUnderTest(SystemUnderTestScope.PER_JVM, FailsToResetSystem.class, FailsToResetSystem::new);
+        scenario.systemUnderTest(SystemUnderTestScope.PER_TEST, FailsToStopSystem.class, FailsToStopSystem::new);
+        PerTestSystem releasedSystem = scenario.systemUnderTest(SystemUnderTestScope.PER_TEST, PerTestSystem.class, PerTestSystem::new);
+
+        Throwable failure = catchThrowable(() -> scenario.finished(Description.EMPTY));
+
+        assertThat(failure).isInstanceOf(IllegalStateException.class).hasMessage("reset failed");
+        assertThat(failure.getSuppressed()).hasSize(1);
+        assertThat(failure.getSuppressed()[0]).hasMessage("stop failed");
+        assertThat(releasedSystem.events).containsExactly("start", "warm up", "stop");
+    }
+
+    @Test
+    public void unhealthyIdleSystemIsStoppedAndReplaced() {
+        FluentBdd<Object> firstScenario = scenarioIn(SystemUnderTestTest.class);
+        UnhealthyPerJvmSystem system = firstScenario.systemUnderTest(SystemUnderTestScope.PER_JVM, UnhealthyPerJvmSystem.class, UnhealthyPerJvmSystem::new);
+        firstScenario.finished(Description.EMPTY);
+        system.healthy = false;
+
+        FluentBdd<Object> secondScenario = scenarioIn(SystemUnderTestTest.class);
+        UnhealthyPerJvmSystem replacement = secondScenario.systemUnderTest(SystemUnderTestScope.PER_JVM, UnhealthyPerJvmSystem.class, UnhealthyPerJvmSystem::new);
+
+        assertThat(replacement).isNotSameAs(system);
+        assertThat(system.events).containsExactly("start", "warm up", "reset", "stop");
+    }
+
+    @Test
+    public void systemThatIsNotHealthyAfterStartingIsStoppedAndFailsTheScenario() {
+        FluentBdd<Object> scenario = scenarioIn(SystemUnderTestTest.class);
+
+        assertThatThrownBy(() -> scenario.systemUnderTest(SystemUnderTestScope.PER_TEST, NeverHealthySystem.class, NeverHealthySystem::new))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageEndingWith("was not healthy after it was started");
+    }
+
+    @Test
+    public void systemThatFailsToWarmUpIsStoppedAndFailsTheScenario() {
+        FluentBdd<Object> scenario = scenarioIn(SystemUnderTestTest.class);
+        FailsToWarmUpSystem system = new FailsToWarmUpSystem();
+
+        assertThatThrownBy(() -> scenario.systemUnderTest(SystemUnderTestScope.PER_JVM, FailsToWarmUpSystem.class, () -> system))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("warm up failed");
+        assertThat(system.events).containsExactly("start", "stop");
+    }
+
+    @Test
+    public void perClassSystemCanOnlyBeUsedWhileAScenarioIsRunning() {
+        FluentBdd<Object> notRunning = new FluentBdd<>();
+
+        assertThatThrownBy(() -> notRunning.systemUnderTest(SystemUnderTestScope.PER_CLASS, PerClassSystem.class, PerClassSystem::new))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("A PER_CLASS system under test can only be used while a scenario is running");
+    }
+
+    private static void runTestClass(Class<?> testClass, Runnable scenarios) throws Throwable {
+        Statement testClassStatement = new Statement() {
+            @Override
+            public void evaluate() {
+                scenarios.run();
+            }
+        };
+        FluentBdd.perClassSystemsUnderTest().apply(testClassStatement, createSuiteDescription(testClass)).evaluate();
+    }
+
+    private FluentBdd<Object> scenarioIn(Class<?> testClass) {
+        FluentBdd<Object> scenario = new FluentBdd<>();
+        scenario.starting(createTestDescription(testClass, "scenario"));
+        return scenario;
+    }
+}
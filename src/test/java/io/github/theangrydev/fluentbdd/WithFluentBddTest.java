@@ -49,6 +49,20 @@ public class WithFluentBddTest implements WithFluentBdd<WithFluentBddTest.TestRe
         assertThat(testState()).isEqualTo(testState);
     }
 
+    @Test
+    public void addToGivensDelegates() {
+        addToGivens("key", "value");
+
+        Mockito.verify(fluentBdd).addToGivens("key", "value");
+    }
+
+    @Test
+    public void addToCapturedInputsAndOutputsDelegates() {
+        addToCapturedInputsAndOutputs("key", "value");
+
+        Mockito.verify(fluentBdd).addToCapturedInputsAndOutputs("key", "value");
+    }
+
     @Test
     public void givenGivenDelegates() {
         given(given);
@@ -70,6 +84,20 @@ public class WithFluentBddTest implements WithFluentBdd<WithFluentBddTest.TestRe
         Mockito.verify(fluentBdd).when(when);
     }
 
+    @Test
+    public void whenAsyncDelegates() {
+        whenAsync(asyncWhen);
+
+        Mockito.verify(fluentBdd).whenAsync(asyncWhen);
+    }
+
+    @Test
+    public void whenLazyDelegates() {
+        whenLazy(lazyWhen);
+
+        Mockito.verify(fluentBdd).whenLazy(lazyWhen);
+    }
+
     @Test
     public void givenWhenDelegates() {
         given(when);
@@ -133,6 +161,12 @@ public class WithFluentBddTest implements WithFluentBdd<WithFluentBddTest.TestRe
     @Mock
     private When<TestResult> when;
 
+    @Mock
+    private AsyncWhen<TestResult> asyncWhen;
+
+    @Mock
+    private LazyWhen<TestResult> lazyWhen;
+
     @Mock
     private ThenAssertion<Then, TestResult> thenAssertion;
 